@@ -0,0 +1,81 @@
+package com.example.quiz.loadtest;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 被压测的只读接口及默认权重：按权重随机选取接口，id 与搜索词从已写入的题库中随机取，
+ * 模拟刷题时以翻题、按 id 取题为主，偶尔全量导出的访问分布。
+ */
+enum Endpoint {
+    NEXT("next", 20) {
+        @Override
+        String path(long[] ids, ThreadLocalRandom random) {
+            return "/api/questions/next?currentId=" + randomId(ids, random);
+        }
+    },
+    PREV("prev", 10) {
+        @Override
+        String path(long[] ids, ThreadLocalRandom random) {
+            return "/api/questions/prev?currentId=" + randomId(ids, random);
+        }
+    },
+    BY_ID("id", 30) {
+        @Override
+        String path(long[] ids, ThreadLocalRandom random) {
+            return "/api/questions/" + randomId(ids, random);
+        }
+    },
+    RANDOM("random", 15) {
+        @Override
+        String path(long[] ids, ThreadLocalRandom random) {
+            return "/api/questions/random";
+        }
+    },
+    SEARCH("search", 15) {
+        @Override
+        String path(long[] ids, ThreadLocalRandom random) {
+            String keyword = SyntheticBank.WORDS[random.nextInt(SyntheticBank.WORDS.length)];
+            return "/api/questions/search?keyword=" + URLEncoder.encode(keyword, StandardCharsets.UTF_8);
+        }
+    },
+    IDS("ids", 5) {
+        @Override
+        String path(long[] ids, ThreadLocalRandom random) {
+            return "/api/questions/ids";
+        }
+    },
+    ALL("all", 1) {
+        @Override
+        String path(long[] ids, ThreadLocalRandom random) {
+            return "/api/questions/all";
+        }
+    };
+
+    final String key;
+    final int defaultWeight;
+
+    Endpoint(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    /**
+     * 本次请求的路径（含查询参数）
+     */
+    abstract String path(long[] ids, ThreadLocalRandom random);
+
+    static Endpoint of(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("未知接口: " + key);
+    }
+
+    private static long randomId(long[] ids, ThreadLocalRandom random) {
+        return ids[random.nextInt(ids.length)];
+    }
+}
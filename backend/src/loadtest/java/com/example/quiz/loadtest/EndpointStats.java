@@ -0,0 +1,79 @@
+package com.example.quiz.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个接口的压测统计：延迟直方图（纳秒，3 位有效数字，最大 10 分钟）、请求数、失败数、响应字节数。
+ * 多个客户端线程并发记录，无锁。
+ */
+final class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    void record(long nanos, long responseBytes) {
+        latency.recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+        bytes.add(responseBytes);
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * 把另一个接口的统计合并进来（用于汇总行）
+     */
+    void add(EndpointStats other) {
+        latency.add(other.latency);
+        errors.add(other.errors.sum());
+        bytes.add(other.bytes.sum());
+    }
+
+    long requests() {
+        return latency.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    double percentileMillis(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    double maxMillis() {
+        return latency.getMaxValue() / 1e6;
+    }
+
+    /**
+     * 结果文件中的一项：各分位数单位为毫秒
+     */
+    Map<String, Object> toMap(double seconds) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("requests", requests());
+        map.put("errors", errors());
+        map.put("throughput", requests() / seconds);
+        map.put("bytesPerSecond", bytes.sum() / seconds);
+        map.put("p50", percentileMillis(50));
+        map.put("p90", percentileMillis(90));
+        map.put("p95", percentileMillis(95));
+        map.put("p99", percentileMillis(99));
+        map.put("p999", percentileMillis(99.9));
+        map.put("max", maxMillis());
+        map.put("mean", latency.getMean() / 1e6);
+        return map;
+    }
+
+    double megabytesPerSecond(double seconds) {
+        return bytes.sum() / seconds / (1024 * 1024);
+    }
+}
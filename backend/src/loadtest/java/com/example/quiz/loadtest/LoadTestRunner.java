@@ -0,0 +1,237 @@
+package com.example.quiz.loadtest;
+
+import com.example.quiz.QuizApplication;
+import com.example.quiz.model.Question;
+import com.example.quiz.service.QuestionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 读接口压测入口：在本进程内以 loadtest 配置启动应用（内嵌 H2、随机端口），写入合成题库，
+ * 再用虚拟线程客户端按权重并发请求各读接口，先预热、后计时，最后按接口输出吞吐和延迟分位数，
+ * 结果同时写入 JSON 文件，便于改动前后对比。全程不访问外部服务，可离线运行。
+ *
+ * 运行：mvn -Ploadtest compile exec:java -Dexec.args="questions=100k concurrency=128 duration=60"
+ * 参数（均可省略）：
+ *   questions   题库题数，支持 k 后缀，默认 10k
+ *   concurrency 并发客户端数（每个客户端一个虚拟线程，收到响应后立即发下一个请求），默认 64
+ *   warmup      预热秒数（不计入结果），默认 10
+ *   duration    计时秒数，默认 30
+ *   mix         接口及权重，如 id:50,next:20,search:10，默认 next/prev/id/random/search/ids/all 全部
+ *   seed        题库随机种子，默认 42
+ *   out         结果文件，默认 loadtest-result.json
+ */
+public class LoadTestRunner {
+
+    private static final int SEED_BATCH = 5000;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int questions = (int) parseCount(options.getOrDefault("questions", "10k"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Map<Endpoint, Integer> mix = parseMix(options.get("mix"));
+        String out = options.getOrDefault("out", "loadtest-result.json");
+        if (questions <= 0 || concurrency <= 0 || duration <= 0 || warmup < 0) {
+            throw new IllegalArgumentException("questions、concurrency、duration 必须为正数，warmup 不能为负数");
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(QuizApplication.class)
+                .profiles("loadtest")
+                .run()) {
+            long start = System.nanoTime();
+            long[] ids = seed(context.getBean(QuestionService.class), questions, seed);
+            System.out.printf("题库已写入：%d 题，耗时 %.1f s%n", ids.length, (System.nanoTime() - start) / 1e9);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI base = URI.create("http://localhost:" + port);
+            Endpoint[] table = weightedTable(mix);
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(clients)
+                        .build();
+                if (warmup > 0) {
+                    System.out.printf("预热 %d s，并发 %d ...%n", warmup, concurrency);
+                    run(client, base, ids, table, concurrency, warmup);
+                }
+                System.out.printf("计时 %d s，并发 %d ...%n", duration, concurrency);
+                Map<Endpoint, EndpointStats> stats = run(client, base, ids, table, concurrency, duration);
+                report(stats, duration);
+
+                Map<String, Object> config = new LinkedHashMap<>();
+                config.put("questions", questions);
+                config.put("concurrency", concurrency);
+                config.put("warmupSeconds", warmup);
+                config.put("durationSeconds", duration);
+                config.put("seed", seed);
+                config.put("mix", mixToString(mix));
+                config.put("java", Runtime.version().toString());
+                config.put("processors", Runtime.getRuntime().availableProcessors());
+                writeResult(new File(out), config, stats, duration);
+                System.out.println("结果已写入 " + out);
+            }
+        }
+    }
+
+    // 经由服务层批量写入，内存题库快照随之更新
+    private static long[] seed(QuestionService questionService, int questions, long seed) {
+        SyntheticBank bank = new SyntheticBank(seed);
+        long[] ids = new long[questions];
+        int n = 0;
+        while (n < questions) {
+            for (Question question : questionService.addQuestions(bank.next(Math.min(SEED_BATCH, questions - n)))) {
+                ids[n++] = question.getId();
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 每个客户端循环发送请求直到时间用完；返回各接口的统计
+     */
+    private static Map<Endpoint, EndpointStats> run(HttpClient client, URI base, long[] ids, Endpoint[] table,
+                                                    int concurrency, int seconds) {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : table) {
+            stats.putIfAbsent(endpoint, new EndpointStats());
+        }
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        Endpoint endpoint = table[random.nextInt(table.length)];
+                        call(client, base.resolve(endpoint.path(ids, random)), stats.get(endpoint));
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+
+    private static void call(HttpClient client, URI uri, EndpointStats stats) {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofMinutes(5)).GET().build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            long bytes;
+            // 读完整个响应体才算请求结束（流式导出的耗时包括传输）
+            try (InputStream body = response.body()) {
+                bytes = body.transferTo(OutputStream.nullOutputStream());
+            }
+            if (response.statusCode() >= 400) {
+                stats.recordError();
+            } else {
+                stats.record(System.nanoTime() - start, bytes);
+            }
+        } catch (IOException e) {
+            stats.recordError();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void report(Map<Endpoint, EndpointStats> stats, int seconds) {
+        EndpointStats total = new EndpointStats();
+        System.out.println();
+        System.out.printf("%-8s %10s %8s %10s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "MB/s");
+        stats.forEach((endpoint, s) -> {
+            printRow(endpoint.key, s, seconds);
+            total.add(s);
+        });
+        printRow("total", total, seconds);
+    }
+
+    private static void printRow(String name, EndpointStats s, int seconds) {
+        System.out.printf("%-8s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                name, s.requests(), s.errors(), (double) s.requests() / seconds,
+                s.percentileMillis(50), s.percentileMillis(95), s.percentileMillis(99), s.maxMillis(),
+                s.megabytesPerSecond(seconds));
+    }
+
+    private static void writeResult(File file, Map<String, Object> config, Map<Endpoint, EndpointStats> stats,
+                                    int seconds) throws IOException {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        EndpointStats total = new EndpointStats();
+        stats.forEach((endpoint, s) -> {
+            endpoints.put(endpoint.key, s.toMap(seconds));
+            total.add(s);
+        });
+        endpoints.put("total", total.toMap(seconds));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("config", config);
+        result.put("endpoints", endpoints);
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, result);
+    }
+
+    // 按权重展开成查找表，客户端每次随机取一项
+    private static Endpoint[] weightedTable(Map<Endpoint, Integer> mix) {
+        List<Endpoint> table = new ArrayList<>();
+        mix.forEach((endpoint, weight) -> table.addAll(Collections.nCopies(weight, endpoint)));
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("mix 中至少要有一个权重大于 0 的接口");
+        }
+        return table.toArray(new Endpoint[0]);
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        if (mix == null || mix.isBlank()) {
+            for (Endpoint endpoint : Endpoint.values()) {
+                weights.put(endpoint, endpoint.defaultWeight);
+            }
+            return weights;
+        }
+        for (String item : mix.split(",")) {
+            String[] parts = item.trim().split(":");
+            Endpoint endpoint = Endpoint.of(parts[0].trim());
+            weights.put(endpoint, parts.length > 1 ? Integer.parseInt(parts[1].trim()) : endpoint.defaultWeight);
+        }
+        return weights;
+    }
+
+    private static String mixToString(Map<Endpoint, Integer> mix) {
+        StringJoiner joiner = new StringJoiner(",");
+        mix.forEach((endpoint, weight) -> joiner.add(endpoint.key + ":" + weight));
+        return joiner.toString();
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("参数格式应为 key=value: " + arg);
+            }
+            options.put(arg.substring(0, eq).trim(), arg.substring(eq + 1).trim());
+        }
+        return options;
+    }
+
+    // 解析 "1000"、"10k" 形式的数量
+    private static long parseCount(String count) {
+        String s = count.trim().toLowerCase();
+        return s.endsWith("k") ? Long.parseLong(s.substring(0, s.length() - 1)) * 1000 : Long.parseLong(s);
+    }
+}
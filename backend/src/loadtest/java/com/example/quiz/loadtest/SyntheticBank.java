@@ -0,0 +1,86 @@
+package com.example.quiz.loadtest;
+
+import com.example.quiz.model.Question;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 合成题库：按章节、题型分布生成题目实体，词表与 benchmarks 模块的 QuestionBankGenerator 一致，
+ * 相同 seed 生成相同题库，保证前后两次压测的数据可比。
+ */
+final class SyntheticBank {
+
+    static final String[] CHAPTERS = {"绪论", "第一章", "第二章", "第三章", "第四章", "第五章", "第六章", "第七章"};
+    static final String[] WORDS = {
+            "马克思主义", "物质", "意识", "实践", "认识", "辩证法", "唯物主义", "矛盾", "规律", "生产力",
+            "生产关系", "经济基础", "上层建筑", "社会存在", "社会意识", "人民群众", "价值", "商品", "货币", "资本",
+            "剩余价值", "垄断", "社会主义", "共产主义", "发展", "联系", "运动", "真理", "历史", "世界观"
+    };
+    private static final String[] CONNECTORS = {"的", "与", "是", "和", "在", "对", "中", "决定", "反映", "体现"};
+    private static final String LETTERS = "ABCDE";
+
+    private final Random random;
+    private int generated;
+
+    SyntheticBank(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * 生成接下来的 count 道题（id 为空）；每章 20 道单选、10 道多选、6 道材料分析小题循环
+     */
+    List<Question> next(int count) {
+        List<Question> questions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int n = generated++;
+            int inChapter = n % 36;
+            String type = inChapter < 20 ? "单选题" : inChapter < 30 ? "多选题" : "材料分析题";
+            questions.add(question(CHAPTERS[(n / 36) % CHAPTERS.length], type, n + 1));
+        }
+        return questions;
+    }
+
+    private Question question(String chapter, String type, int no) {
+        boolean multi = !"单选题".equals(type);
+        Question question = new Question();
+        question.setChapter(chapter);
+        question.setQuestionType(type);
+        // 题干带序号，保证每道题内容不同（内容指纹不冲突）
+        question.setContent(no + "、" + sentence(8 + random.nextInt(8)) + "（ ）");
+        question.setOptionA(sentence(2 + random.nextInt(3)));
+        question.setOptionB(sentence(2 + random.nextInt(3)));
+        question.setOptionC(sentence(2 + random.nextInt(3)));
+        question.setOptionD(sentence(2 + random.nextInt(3)));
+        if (multi && random.nextBoolean()) {
+            question.setOptionE(sentence(2 + random.nextInt(3)));
+        }
+        question.setAnswer(answer(multi));
+        return question;
+    }
+
+    private String answer(boolean multi) {
+        if (!multi) {
+            return String.valueOf(LETTERS.charAt(random.nextInt(4)));
+        }
+        StringBuilder answer = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            if (random.nextBoolean() || (i == 3 && answer.length() < 2)) {
+                answer.append(LETTERS.charAt(i));
+            }
+        }
+        return answer.toString();
+    }
+
+    private String sentence(int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(i % 5 == 0 ? "，" : CONNECTORS[random.nextInt(CONNECTORS.length)]);
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.quiz.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * HTTP 请求指标（http.server.requests）额外加 endpoint 标签，值为处理请求的控制器方法，
+     * 如 QuestionController#getQuestionById
+     */
+    @Bean
+    public ServerRequestObservationConvention endpointTaggingConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(KeyValue.of("endpoint", endpoint(context)));
+            }
+        };
+    }
+
+    private static String endpoint(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "#" + method.getMethod().getName();
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.quiz.controller;
+
+import com.example.quiz.service.impl.BankSnapshotService;
+import org.springframework.boot.actuate.endpoint.Access;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 题库快照文件管理端点（Actuator，id 为 banksnapshot）：只读写服务器上 quiz.snapshot.file 指定的文件，
+ * 题库（含答案）不经过公开的 /api 接口传给客户端，也不接受客户端上传的题库。
+ * 默认关闭且不暴露，需要时设置 management.endpoint.banksnapshot.access=unrestricted 并加入
+ * management.endpoints.web.exposure.include，且只在内网管理端口（management.server.port）上开放：
+ * GET /actuator/banksnapshot 查看文件信息；POST /actuator/banksnapshot/export 把当前题库写入该文件；
+ * POST /actuator/banksnapshot/import 用该文件替换整个题库（保留题目 id）。
+ */
+@Component
+@Endpoint(id = "banksnapshot", defaultAccess = Access.NONE)
+public class BankSnapshotEndpoint {
+
+    private final BankSnapshotService bankSnapshotService;
+
+    public BankSnapshotEndpoint(BankSnapshotService bankSnapshotService) {
+        this.bankSnapshotService = bankSnapshotService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> info() {
+        return bankSnapshotService.fileInfo();
+    }
+
+    @WriteOperation
+    public Map<String, Object> run(@Selector String action) {
+        try {
+            return switch (action) {
+                case "export" -> Map.of("exported", bankSnapshotService.exportToFile());
+                case "import" -> Map.of("imported", bankSnapshotService.importFromFile());
+                default -> throw new InvalidEndpointRequestException("不支持的操作: " + action, "unknown action");
+            };
+        } catch (IOException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
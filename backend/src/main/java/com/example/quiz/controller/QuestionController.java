@@ -1,14 +1,34 @@
 package com.example.quiz.controller;
 
+import com.example.quiz.index.BankVersion;
+import com.example.quiz.index.IdListCodec;
+import com.example.quiz.index.QuestionStore;
+import com.example.quiz.model.AnswerResult;
+import com.example.quiz.model.AnswerSubmission;
+import com.example.quiz.model.ImportJob;
 import com.example.quiz.model.Question;
+import com.example.quiz.model.QuestionDifficulty;
+import com.example.quiz.model.QuestionPage;
+import com.example.quiz.model.QuestionWindow;
+import com.example.quiz.service.AnswerService;
 import com.example.quiz.service.QuestionService;
+import com.example.quiz.service.impl.ImportJobService;
+import com.example.quiz.service.impl.QuestionStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/questions")
@@ -18,55 +38,53 @@ public class QuestionController {
     private QuestionService questionService;
 
     @Autowired
-    private com.example.quiz.repo.QuestionRepository questionRepository;
+    private AnswerService answerService;
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private QuestionStatsService questionStatsService;
+
+    @Autowired
+    private QuestionStore questionStore;
+
+    @Autowired
+    private BankVersion bankVersion;
     
     // 获取题目总数
     @GetMapping("/count")
-    public ResponseEntity<Map<String, Long>> getQuestionCount() {
-        Long count = questionService.getTotalCount();
-        Map<String, Long> response = new HashMap<>();
-        response.put("count", count);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Map<String, Long>> getQuestionCount(WebRequest webRequest) {
+        return conditional(webRequest, "count", () -> {
+            Long count = questionService.getTotalCount();
+            Map<String, Long> response = new HashMap<>();
+            response.put("count", count);
+            return ResponseEntity.ok(response);
+        });
     }
     
     // 根据ID获取题目
     @GetMapping("/{id}")
-    public ResponseEntity<Question> getQuestionById(@PathVariable Integer id) {
-        Question question = questionService.getQuestionById(id);
-        if (question == null) {
-            return ResponseEntity.notFound().build();
-        }
-        return ResponseEntity.ok(question);
+    public ResponseEntity<Question> getQuestionById(@PathVariable Integer id, WebRequest webRequest) {
+        return conditional(webRequest, "question", () -> found(questionService.getQuestionById(id)));
     }
     
     // 获取下一题
     @GetMapping("/next")
-    public ResponseEntity<Question> getNextQuestion(@RequestParam(required = false) Integer currentId) {
-        Question question = questionService.getNextQuestion(currentId);
-        if (question == null) {
-            return ResponseEntity.notFound().build();
-        }
-        return ResponseEntity.ok(question);
+    public ResponseEntity<Question> getNextQuestion(@RequestParam(required = false) Integer currentId, WebRequest webRequest) {
+        return conditional(webRequest, "next", () -> found(questionService.getNextQuestion(currentId)));
     }
     
     // 获取上一题
     @GetMapping("/prev")
-    public ResponseEntity<Question> getPrevQuestion(@RequestParam(required = false) Integer currentId) {
-        Question question = questionService.getPreviousQuestion(currentId);
-        if (question == null) {
-            return ResponseEntity.notFound().build();
-        }
-        return ResponseEntity.ok(question);
+    public ResponseEntity<Question> getPrevQuestion(@RequestParam(required = false) Integer currentId, WebRequest webRequest) {
+        return conditional(webRequest, "prev", () -> found(questionService.getPreviousQuestion(currentId)));
     }
     
     // 获取第一题
     @GetMapping("/first")
-    public ResponseEntity<Question> getFirstQuestion() {
-        Question question = questionService.getFirstQuestion();
-        if (question == null) {
-            return ResponseEntity.notFound().build();
-        }
-        return ResponseEntity.ok(question);
+    public ResponseEntity<Question> getFirstQuestion(WebRequest webRequest) {
+        return conditional(webRequest, "first", () -> found(questionService.getFirstQuestion()));
     }
     
     // 随机获取题目
@@ -79,6 +97,47 @@ public class QuestionController {
         return ResponseEntity.ok(question);
     }
     
+    // 随机组卷：count 道题，seed 相同则可复现同一套题
+    @GetMapping("/random/set")
+    public ResponseEntity<List<Question>> getRandomQuestions(
+            @RequestParam(defaultValue = "10") Integer count,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) String questionType,
+            @RequestParam(required = false) String chapter) {
+        List<Question> questions = questionService.getRandomQuestions(count, seed, questionType, chapter);
+        return ResponseEntity.ok(questions);
+    }
+    
+    // 题目窗口：当前题及其前 before 题、后 after 题（按 id 顺序，首尾相接），翻题时前端可直接从窗口中取
+    @GetMapping("/window")
+    public ResponseEntity<QuestionWindow> getQuestionWindow(
+            @RequestParam(required = false) Long id,
+            @RequestParam(defaultValue = "1") Integer before,
+            @RequestParam(defaultValue = "5") Integer after,
+            WebRequest webRequest) {
+        return conditional(webRequest, "window",
+                () -> ResponseEntity.ok(questionService.getQuestionWindow(id, before, after)));
+    }
+    
+    // 分面计数：{"total": n, "chapters": {"第一章": n, ...}, "types": {"单选题": n, ...}}，可叠加题型/章节筛选
+    @GetMapping("/facets")
+    public ResponseEntity<Map<String, Object>> getFacets(
+            @RequestParam(required = false) String questionType,
+            @RequestParam(required = false) String chapter,
+            WebRequest webRequest) {
+        return conditional(webRequest, "facets", () -> ResponseEntity.ok(questionService.getFacets(questionType, chapter)));
+    }
+    
+    // 按 id 批量获取题目：GET /api/questions?ids=1,2,3（最多 200 个，按传入顺序返回）
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<Question>> getQuestionsByIds(@RequestParam List<Long> ids, WebRequest webRequest) {
+        try {
+            return conditional(webRequest, "batch", () -> ResponseEntity.ok(questionService.getQuestionsByIds(ids)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // 添加题目
     @PostMapping
     public ResponseEntity<Question> addQuestion(@RequestBody Question question) {
@@ -110,61 +169,206 @@ public class QuestionController {
         return ResponseEntity.ok().build();
     }
     
+    // 提交答案并判分：POST /api/questions/{id}/answer {"choices": "AC", "userId": "..."}，返回是否正确及正确答案
+    @PostMapping("/{id}/answer")
+    public ResponseEntity<AnswerResult> submitAnswer(@PathVariable Long id, @RequestBody AnswerSubmission submission) {
+        try {
+            AnswerResult result = answerService.submitAnswer(id, submission);
+            if (result == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // 最难的题目：GET /api/questions/stats/hardest?chapter=&questionType=&sort=rate|wrong&minAttempts=5&limit=20
+    // sort=rate 按正确率从低到高，sort=wrong 按答错次数从多到少
+    @GetMapping("/stats/hardest")
+    public ResponseEntity<List<QuestionDifficulty>> getHardestQuestions(
+            @RequestParam(required = false) String questionType,
+            @RequestParam(required = false) String chapter,
+            @RequestParam(defaultValue = "rate") String sort,
+            @RequestParam(defaultValue = "5") Integer minAttempts,
+            @RequestParam(defaultValue = "20") Integer limit) {
+        if (!"rate".equals(sort) && !"wrong".equals(sort)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(questionStatsService.hardest(questionType, chapter, "wrong".equals(sort), minAttempts, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // 单题作答统计
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<QuestionDifficulty> getQuestionStats(@PathVariable Long id) {
+        QuestionDifficulty difficulty = questionStatsService.get(id);
+        if (difficulty == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(difficulty);
+    }
+    
     // 根据类型查询
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Question>> getQuestionsByType(@PathVariable String type) {
-        List<Question> questions = questionService.getQuestionsByType(type);
-        return ResponseEntity.ok(questions);
+    public ResponseEntity<List<Question>> getQuestionsByType(@PathVariable String type, WebRequest webRequest) {
+        return conditional(webRequest, "type", () -> ResponseEntity.ok(questionService.getQuestionsByType(type)));
     }
     
     // 搜索题目
     @GetMapping("/search")
-    public ResponseEntity<List<Question>> searchQuestions(@RequestParam String keyword) {
-        List<Question> questions = questionService.searchQuestions(keyword);
-        return ResponseEntity.ok(questions);
+    public ResponseEntity<List<Question>> searchQuestions(@RequestParam String keyword, WebRequest webRequest) {
+        return conditional(webRequest, "search", () -> ResponseEntity.ok(questionService.searchQuestions(keyword)));
     }
     
-    // 获取所有题目（分页）
+    // 获取所有题目（游标分页，cursor 取上一页返回的 nextCursor）
     @GetMapping
-    public ResponseEntity<List<Question>> getAllQuestions(
-            @RequestParam(defaultValue = "0") Integer page,
-            @RequestParam(defaultValue = "20") Integer size) {
-        List<Question> questions = questionService.getAllQuestions(page, size);
-        return ResponseEntity.ok(questions);
+    public ResponseEntity<QuestionPage> getQuestionPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String questionType,
+            @RequestParam(required = false) String chapter,
+            WebRequest webRequest) {
+        try {
+            return conditional(webRequest, "page",
+                    () -> ResponseEntity.ok(questionService.getQuestionPage(cursor, size, questionType, chapter)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
-    // 批量导入题目
+    // 批量导入题目：提交异步任务，立即返回任务 id，通过 GET /import/{jobId} 查询进度
     @PostMapping("/import")
-    public ResponseEntity<Map<String, Object>> importQuestions(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> importQuestions(@RequestBody Map<String, String> request) {
         String content = request.get("content");
         if (content == null || content.trim().isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "导入内容不能为空"));
         }
-        
-        Integer count = questionService.importQuestions(content);
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("importedCount", count);
-        response.put("message", "成功导入 " + count + " 道题目");
-        
-        return ResponseEntity.ok(response);
+        try {
+            return ResponseEntity.accepted().body(importJobService.submitText(content));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        }
     }
 
+    // 批量导入 quiz.import.pdf-dir 目录下的 PDF（异步任务）：{"directory": "子目录"} 或 {"paths": ["a.pdf", "子目录/b.pdf"]}，
+    // 路径均相对导入目录，超出导入目录的返回 400
+    @PostMapping("/import/pdf")
+    public ResponseEntity<?> importPdfFiles(@RequestBody Map<String, Object> request) {
+        try {
+            ImportJob job;
+            if (request.get("directory") instanceof String directory && !directory.isBlank()) {
+                job = importJobService.submitPdfDirectory(directory);
+            } else if (request.get("paths") instanceof List<?> paths && !paths.isEmpty()) {
+                job = importJobService.submitPdfs(paths.stream().map(String::valueOf).toList());
+            } else {
+                return ResponseEntity.badRequest().body(Map.of("error", "请提供 directory 或 paths"));
+            }
+            return ResponseEntity.accepted().body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 查询导入任务状态：已解析字符数、识别出的题数、已入库行数
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJob> getImportJob(@PathVariable String jobId) {
+        ImportJob job = importJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    // 取消导入任务（已写入但未提交的数据会回滚）
+    @DeleteMapping("/import/{jobId}")
+    public ResponseEntity<ImportJob> cancelImportJob(@PathVariable String jobId) {
+        ImportJob job = importJobService.cancel(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    // 所有题目 id（升序）：format=json（默认，数组）、ranges（连续区间 [[起,止],...]）、delta（差值变长整数二进制）
     @GetMapping("/ids")
-    public ResponseEntity<List<Long>> getAllQuestionIds() {
-        List<Question> questions = questionRepository.findAll();
-        List<Long> ids = questions.stream() //开启流
-                .map(Question::getId)  //等价.map( question -> question.getId() )
-                .collect(Collectors.toList()); //收集结果，终止流（收尾操作） Collectors.toList() ：JDK 提供的收集器，作用是「把流中的元素收集到一个 ArrayList 集合中」
-        return ResponseEntity.ok(ids);
+    public ResponseEntity<?> getAllQuestionIds(@RequestParam(defaultValue = "json") String format, WebRequest webRequest) {
+        if (!List.of("json", "ranges", "delta").contains(format)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "不支持的格式: " + format));
+        }
+        return conditional(webRequest, "ids-" + format, () -> {
+            long[] ids = questionStore.current().ids();
+            return switch (format) {
+                case "ranges" -> ResponseEntity.ok(IdListCodec.toRanges(ids));
+                case "delta" -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .body(IdListCodec.toDeltaVarint(ids));
+                default -> ResponseEntity.ok(ids);
+            };
+        });
     }
 
+    // 导出所有题目：直接遍历内存题库快照边序列化边输出，不另行组装列表；
+    // format=ndjson 或 Accept: application/x-ndjson 时每行一个 JSON 对象，否则为 JSON 数组
     @GetMapping("/all")
-    public ResponseEntity<List<Question>> getAllQuestions() {
-        List<Question> questions = questionRepository.findAll();
-        return ResponseEntity.ok(questions);
+    public ResponseEntity<StreamingResponseBody> getAllQuestions(
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest) {
+        boolean ndjson = "ndjson".equals(format)
+                || (format == null && accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE));
+        return conditional(webRequest, ndjson ? "all-ndjson" : "all", () -> ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(out -> questionService.exportAll(out, ndjson)));
     }
 
-    
-}
\ No newline at end of file
+    // 内存题库快照统计（题目数、全量加载时间与耗时、增量替换次数）
+    @GetMapping("/snapshot/stats")
+    public ResponseEntity<Map<String, Object>> getSnapshotStats() {
+        return ResponseEntity.ok(questionStore.stats());
+    }
+
+    // 从数据库重新加载内存题库快照（数据库被绕过应用直接修改后使用）
+    @PostMapping("/snapshot/reload")
+    public ResponseEntity<Map<String, Object>> reloadSnapshot() {
+        questionStore.reload();
+        return ResponseEntity.ok(questionStore.stats());
+    }
+
+    /**
+     * 条件 GET：与当前题库版本一致时直接返回 304，不执行查询；否则执行查询，
+     * 并在成功响应上附带强 ETag、Last-Modified 和 no-cache（浏览器每次都带条件头回源校验）。
+     * 以 ETag 为准：请求带 If-None-Match 时只比较 ETag，不带时才比较 If-Modified-Since。
+     * Last-Modified 只精确到秒，版本在当前这一秒内变化过时不发送也不按日期校验，
+     * 否则同一秒内的第二次变化会让按日期回源的客户端得到 304 和旧内容。
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest webRequest, String resource, Supplier<ResponseEntity<T>> loader) {
+        String etag = bankVersion.etag(resource);
+        long version = bankVersion.current();
+        long lastModified = version / 1000 < System.currentTimeMillis() / 1000 ? version : -1;
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        ResponseEntity<T> response = loader.get();
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache());
+        if (lastModified > 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder.body(response.getBody());
+    }
+
+    private static ResponseEntity<Question> found(Question question) {
+        return question == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(question);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.quiz.controller;
+
+import com.example.quiz.model.ReviewItem;
+import com.example.quiz.model.ReviewSummary;
+import com.example.quiz.service.impl.ReviewService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 错题复习：作答仍然提交到 POST /api/questions/{id}/answer（带 userId），由判分结果调整复习计划
+ */
+@RestController
+@RequestMapping("/api/review")
+public class ReviewController {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    // 下一道到期的错题：GET /api/review/next?userId=...&ahead=false，没有到期的题返回 204
+    // ahead=true 时返回最早到期的一道（提前复习）
+    @GetMapping("/next")
+    public ResponseEntity<ReviewItem> getNext(@RequestParam(required = false) String userId,
+                                              @RequestParam(defaultValue = "false") boolean ahead) {
+        try {
+            ReviewItem item = reviewService.next(userId, ahead);
+            if (item == null) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.ok(item);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 复习概况：卡片总数、已到期数、最早到期时间
+    @GetMapping("/summary")
+    public ResponseEntity<ReviewSummary> getSummary(@RequestParam(required = false) String userId) {
+        try {
+            return ResponseEntity.ok(reviewService.summary(userId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.quiz.index;
+
+import com.example.quiz.model.Question;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 答案位掩码：正确选项编码为 A=1、B=2、C=4、D=8、E=16，判分只比较两个整数，与选项顺序无关。
+ * 正确答案直接取自内存题库快照（{@link QuestionStore}），判分不访问数据库，
+ * 不存在或已删除的题目同样由快照回答，不会每次回源查询。
+ */
+@Component
+public class AnswerKey {
+
+    private static final String LETTERS = "ABCDE";
+
+    @Autowired
+    private QuestionStore questionStore;
+
+    /**
+     * 题目的正确选项位掩码；题目不存在时返回 null（答案为空的题目返回 0）
+     */
+    public Integer mask(long questionId) {
+        Question question = questionStore.current().get(questionId);
+        return question == null ? null : parseAnswer(question.getAnswer());
+    }
+
+    /**
+     * 解析作答的选项（如 "BA"、"A,B"、"a b"），忽略顺序、大小写、空白和分隔符
+     * @throws IllegalArgumentException 没有选择任何选项，或包含 A~E 以外的字母
+     */
+    public static int parseChoices(String choices) {
+        if (choices == null) {
+            throw new IllegalArgumentException("未选择答案");
+        }
+        int mask = 0;
+        for (int i = 0; i < choices.length(); i++) {
+            char c = Character.toUpperCase(choices.charAt(i));
+            int index = LETTERS.indexOf(c);
+            if (index >= 0) {
+                mask |= 1 << index;
+            } else if (Character.isLetterOrDigit(c)) {
+                throw new IllegalArgumentException("无效的选项: " + c);
+            }
+        }
+        if (mask == 0) {
+            throw new IllegalArgumentException("未选择答案");
+        }
+        return mask;
+    }
+
+    /**
+     * 位掩码转为按字母顺序排列的选项，如 5 → "AC"
+     */
+    public static String format(int mask) {
+        StringBuilder sb = new StringBuilder(LETTERS.length());
+        for (int i = 0; i < LETTERS.length(); i++) {
+            if ((mask & (1 << i)) != 0) {
+                sb.append(LETTERS.charAt(i));
+            }
+        }
+        return sb.toString();
+    }
+
+    // 题库中的答案：只取 A~E，其余字符（分隔符、空白、异常数据）忽略
+    private static int parseAnswer(String answer) {
+        int mask = 0;
+        if (answer != null) {
+            for (int i = 0; i < answer.length(); i++) {
+                int index = LETTERS.indexOf(Character.toUpperCase(answer.charAt(i)));
+                if (index >= 0) {
+                    mask |= 1 << index;
+                }
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.quiz.index;
+
+import com.example.quiz.model.Question;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 题库快照文件（二进制，大端序），用于备份、跨环境迁移和启动预热，不依赖数据库：
+ * <pre>
+ * 文件头   magic "QBNK" | 版本 u16 | 标志 u16 | 题目数 i32 | 字符串表条数 i32 | 生成时间 i64（毫秒）
+ * 字符串表 题型、章节去重后的取值，每条为 长度 i32 + UTF-8 字节
+ * 题目记录 按 id 升序：id i64 | 题型序号 i32 | 章节序号 i32 | 题干、选项 A~E、答案（各为 长度 i32 + UTF-8 字节）
+ * id 索引  每题一项：id i64 | 记录偏移 i64
+ * 文件尾   索引偏移 i64 | CRC32 i32（覆盖之前的全部字节） | magic "QEND"
+ * </pre>
+ * 长度或序号为 -1 表示 null。读取时整个文件内存映射，先校验 magic、版本和 CRC，再按索引解码；
+ * 单题读取可按 id 在索引中二分查找，不必解码整个文件。
+ */
+public final class BankSnapshotFile {
+
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x51424E4B;     // "QBNK"
+    private static final int END_MAGIC = 0x51454E44; // "QEND"
+    private static final int HEADER_BYTES = 4 + 2 + 2 + 4 + 4 + 8;
+    private static final int TRAILER_BYTES = 8 + 4 + 4;
+    private static final int INDEX_ENTRY_BYTES = 8 + 8;
+    private static final int NULL_REF = -1;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final long createdAt;
+    private final String[] labels;
+    private final int indexOffset;
+
+    private BankSnapshotFile(MappedByteBuffer buffer, int count, long createdAt, String[] labels, int indexOffset) {
+        this.buffer = buffer;
+        this.count = count;
+        this.createdAt = createdAt;
+        this.labels = labels;
+        this.indexOffset = indexOffset;
+    }
+
+    /**
+     * 写出快照
+     * @param questions 按 id 严格升序、id 不为空的题目（如 {@link QuestionSnapshot#all()}）
+     */
+    public static void write(List<Question> questions, OutputStream out) throws IOException {
+        Map<String, Integer> labelRefs = new LinkedHashMap<>();
+        long previousId = Long.MIN_VALUE;
+        for (Question question : questions) {
+            if (question.getId() == null || question.getId() <= previousId) {
+                throw new IllegalArgumentException("题目必须按 id 严格升序且 id 不为空");
+            }
+            previousId = question.getId();
+            labelRefs.putIfAbsent(question.getQuestionType(), labelRefs.size());
+            labelRefs.putIfAbsent(question.getChapter(), labelRefs.size());
+        }
+        labelRefs.remove(null);
+        int ref = 0;
+        for (Map.Entry<String, Integer> entry : labelRefs.entrySet()) {
+            entry.setValue(ref++); // 去掉 null 后重新编号
+        }
+
+        CheckedOutputStream checked = new CheckedOutputStream(out, new CRC32());
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(checked, 64 * 1024));
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeShort(0);
+        data.writeInt(questions.size());
+        data.writeInt(labelRefs.size());
+        data.writeLong(System.currentTimeMillis());
+        for (String label : labelRefs.keySet()) {
+            writeString(data, label);
+        }
+
+        long[] offsets = new long[questions.size()];
+        for (int i = 0; i < questions.size(); i++) {
+            Question question = questions.get(i);
+            offsets[i] = data.size();
+            data.writeLong(question.getId());
+            data.writeInt(labelRef(labelRefs, question.getQuestionType()));
+            data.writeInt(labelRef(labelRefs, question.getChapter()));
+            writeString(data, question.getContent());
+            writeString(data, question.getOptionA());
+            writeString(data, question.getOptionB());
+            writeString(data, question.getOptionC());
+            writeString(data, question.getOptionD());
+            writeString(data, question.getOptionE());
+            writeString(data, question.getAnswer());
+            if (data.size() == Integer.MAX_VALUE) { // DataOutputStream 的计数到达上限后不再增长
+                throw new IOException("快照文件超过 2GB");
+            }
+        }
+
+        long indexOffset = data.size();
+        for (int i = 0; i < questions.size(); i++) {
+            data.writeLong(questions.get(i).getId());
+            data.writeLong(offsets[i]);
+        }
+        data.writeLong(indexOffset);
+        data.flush();
+        data.writeInt((int) checked.getChecksum().getValue());
+        data.writeInt(END_MAGIC);
+        data.flush();
+    }
+
+    /**
+     * 写出到文件：先写临时文件再原子替换，写到一半失败不会破坏已有的快照
+     */
+    public static void write(List<Question> questions, Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            write(questions, out);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 内存映射打开快照文件，校验 magic、版本、CRC 和索引位置
+     * @throws IOException 文件不是快照文件、版本不支持或已损坏
+     */
+    public static BankSnapshotFile open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("快照文件超过 2GB");
+            }
+            if (size < HEADER_BYTES + TRAILER_BYTES) {
+                throw new IOException("不是题库快照文件");
+            }
+            // 映射在通道关闭后仍然有效
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        int size = buffer.capacity();
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(size - 4) != END_MAGIC) {
+            throw new IOException("不是题库快照文件");
+        }
+        int version = buffer.getShort(4) & 0xFFFF;
+        if (version > VERSION) {
+            throw new IOException("不支持的快照版本: " + version);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, size - 8));
+        if ((int) crc.getValue() != buffer.getInt(size - 8)) {
+            throw new IOException("快照文件校验失败（CRC 不一致），文件可能已损坏");
+        }
+        int count = buffer.getInt(8);
+        int labelCount = buffer.getInt(12);
+        long createdAt = buffer.getLong(16);
+        long indexOffset = buffer.getLong(size - TRAILER_BYTES);
+        if (count < 0 || labelCount < 0
+                || indexOffset + (long) count * INDEX_ENTRY_BYTES != size - TRAILER_BYTES) {
+            throw new IOException("快照文件索引位置不正确");
+        }
+        Decoder decoder = new Decoder(buffer, HEADER_BYTES);
+        String[] labels = new String[labelCount];
+        for (int i = 0; i < labelCount; i++) {
+            labels[i] = decoder.string();
+        }
+        return new BankSnapshotFile(buffer, count, createdAt, labels, (int) indexOffset);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * 文件生成时间（毫秒）
+     */
+    public long createdAt() {
+        return createdAt;
+    }
+
+    /**
+     * 升序 id（只读索引，不解码题目）
+     */
+    public long[] ids() {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = buffer.getLong(indexOffset + i * INDEX_ENTRY_BYTES);
+        }
+        return ids;
+    }
+
+    /**
+     * 按 id 读取单题：在索引中二分查找后只解码这一条记录；不存在时返回 null
+     */
+    public Question get(long id) throws IOException {
+        int low = 0, high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = buffer.getLong(indexOffset + mid * INDEX_ENTRY_BYTES);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return readAt(new Decoder(buffer, 0), mid);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按 id 升序解码全部题目；题型、章节字符串由字符串表共享
+     */
+    public List<Question> readAll() throws IOException {
+        List<Question> questions = new ArrayList<>(count);
+        Decoder decoder = new Decoder(buffer, 0);
+        for (int i = 0; i < count; i++) {
+            questions.add(readAt(decoder, i));
+        }
+        return questions;
+    }
+
+    private Question readAt(Decoder decoder, int index) throws IOException {
+        long entry = indexOffset + (long) index * INDEX_ENTRY_BYTES;
+        long id = buffer.getLong((int) entry);
+        long offset = buffer.getLong((int) entry + 8);
+        if (offset < HEADER_BYTES || offset >= indexOffset) {
+            throw new IOException("快照文件记录偏移不正确: " + offset);
+        }
+        try {
+            decoder.position = (int) offset;
+            Question question = new Question();
+            question.setId(decoder.int64());
+            if (question.getId() != id) {
+                throw new IOException("快照文件记录与索引不一致: " + id);
+            }
+            question.setQuestionType(label(decoder.int32()));
+            question.setChapter(label(decoder.int32()));
+            question.setContent(decoder.string());
+            question.setOptionA(decoder.string());
+            question.setOptionB(decoder.string());
+            question.setOptionC(decoder.string());
+            question.setOptionD(decoder.string());
+            question.setOptionE(decoder.string());
+            question.setAnswer(decoder.string());
+            return question;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("快照文件记录已损坏: " + id, e);
+        }
+    }
+
+    private String label(int ref) throws IOException {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        if (ref < 0 || ref >= labels.length) {
+            throw new IOException("快照文件字符串表序号越界: " + ref);
+        }
+        return labels[ref];
+    }
+
+    private static int labelRef(Map<String, Integer> labelRefs, String label) {
+        return label == null ? NULL_REF : labelRefs.get(label);
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            data.writeInt(NULL_REF);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    // 在映射缓冲区上按绝对位置顺序读取，不修改缓冲区自身的 position，可多个解码器并发读取
+    private static final class Decoder {
+        private final MappedByteBuffer buffer;
+        private int position;
+        private byte[] scratch = new byte[256];
+
+        Decoder(MappedByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        long int64() {
+            long value = buffer.getLong(position);
+            position += 8;
+            return value;
+        }
+
+        int int32() {
+            int value = buffer.getInt(position);
+            position += 4;
+            return value;
+        }
+
+        String string() {
+            int length = int32();
+            if (length == NULL_REF) {
+                return null;
+            }
+            if (length < 0) {
+                throw new IndexOutOfBoundsException("字符串长度为负: " + length);
+            }
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(position, scratch, 0, length);
+            position += length;
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
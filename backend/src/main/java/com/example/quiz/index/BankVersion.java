@@ -0,0 +1,56 @@
+package com.example.quiz.index;
+
+import com.example.quiz.model.Question;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 题库版本号：任何写操作提交后递增，读接口据此生成 ETag / Last-Modified，客户端带 If-None-Match 时无需查库即可返回 304。
+ * 版本号取毫秒时间戳并保证严格递增，因此重启后也不会与旧版本重复，同时可直接作为最后修改时间。
+ */
+@Component
+public class BankVersion implements QuestionChangeListener {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * 当前版本号（同时是最后修改时间，毫秒）
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * 某个资源在当前版本下的强 ETag（浏览器按 URL 缓存，resource 只需区分接口，不必包含参数）
+     */
+    public String etag(String resource) {
+        return "\"v" + Long.toString(current(), 36) + "-" + resource + "\"";
+    }
+
+    public void bump() {
+        version.updateAndGet(v -> Math.max(v + 1, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void onSaved(Collection<Question> questions) {
+        bump();
+    }
+
+    @Override
+    public void onDeleted(Collection<Long> ids) {
+        bump();
+    }
+
+    @Override
+    public void onCleared() {
+        bump();
+    }
+
+    @Override
+    public void onReloaded(QuestionSnapshot snapshot) {
+        // 重新加载可能带入绕过应用写入的数据，旧 ETag 不再可信
+        bump();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.quiz.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 中文友好的分词器：连续汉字切成重叠的二元组（“马克思主义”→“马克”“克思”“思主”“主义”），
+ * 孤立的单个汉字保留为单字；字母数字连续串作为一个词（小写、全角转半角），其余标点空白作为分隔符。
+ */
+public final class BigramTokenizer {
+
+    private BigramTokenizer() {
+    }
+
+    public static List<String> tokenize(CharSequence text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder word = new StringBuilder();
+        int hanStart = -1; // 当前连续汉字串在 text 中的起点
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? normalize(text.charAt(i)) : ' ';
+            if (Character.isIdeographic(c)) {
+                flushWord(word, tokens);
+                if (hanStart < 0) {
+                    hanStart = i;
+                }
+                continue;
+            }
+            if (hanStart >= 0) {
+                emitHan(text, hanStart, i, tokens);
+                hanStart = -1;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else {
+                flushWord(word, tokens);
+            }
+        }
+        return tokens;
+    }
+
+    private static void emitHan(CharSequence text, int start, int end, List<String> tokens) {
+        if (end - start == 1) {
+            tokens.add(String.valueOf(text.charAt(start)));
+            return;
+        }
+        for (int i = start; i + 1 < end; i++) {
+            tokens.add(new String(new char[]{text.charAt(i), text.charAt(i + 1)}));
+        }
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    // 全角字母数字转半角，与 CommonUtil.fullWidthToHalfWidth 的规则一致
+    private static char normalize(char c) {
+        if (c >= 65281 && c <= 65374) {
+            return (char) (c - 65248);
+        }
+        return c;
+    }
+}
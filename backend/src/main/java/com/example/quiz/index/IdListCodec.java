@@ -0,0 +1,49 @@
+package com.example.quiz.index;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 有序 id 列表的紧凑编码：连续区间（[[起, 止], ...]）或差值变长整数（二进制，每个 id 通常只占 1 字节）
+ */
+public final class IdListCodec {
+
+    private IdListCodec() {
+    }
+
+    /**
+     * 合并连续 id 为闭区间，如 [1,2,3,5,6] → [[1,3],[5,6]]
+     */
+    public static List<long[]> toRanges(long[] ids) {
+        List<long[]> ranges = new ArrayList<>();
+        int i = 0;
+        while (i < ids.length) {
+            int j = i;
+            while (j + 1 < ids.length && ids[j + 1] == ids[j] + 1) {
+                j++;
+            }
+            ranges.add(new long[]{ids[i], ids[j]});
+            i = j + 1;
+        }
+        return ranges;
+    }
+
+    /**
+     * 差值变长整数编码：依次写入与前一个 id 的差（首个与 0 比较），每字节低 7 位存数据、最高位表示后面还有字节
+     */
+    public static byte[] toDeltaVarint(long[] ids) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(ids.length + 8);
+        long previous = 0;
+        for (long id : ids) {
+            long delta = id - previous;
+            previous = id;
+            while ((delta & ~0x7FL) != 0) {
+                out.write((int) ((delta & 0x7F) | 0x80));
+                delta >>>= 7;
+            }
+            out.write((int) delta);
+        }
+        return out.toByteArray();
+    }
+}
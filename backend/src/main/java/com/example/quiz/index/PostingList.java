@@ -0,0 +1,117 @@
+package com.example.quiz.index;
+
+import java.util.Arrays;
+
+/**
+ * 压缩倒排表：按文档 id 升序存放 (id 差值, 词频) 对，均采用变长整数（varint）编码写入 byte[]。
+ * 追加递增 id 时原地写入；乱序插入或删除时解码后重新编码。非线程安全，由外层索引加锁。
+ */
+final class PostingList {
+
+    private byte[] data = new byte[8];
+    private int length;     // data 中已使用的字节数
+    private int docCount;   // 文档数（即 df）
+    private int lastDocId;
+
+    int docCount() {
+        return docCount;
+    }
+
+    void add(int docId, int termFrequency) {
+        if (docCount > 0 && docId <= lastDocId) {
+            int[][] decoded = decode();
+            int pos = Arrays.binarySearch(decoded[0], docId);
+            if (pos >= 0) {
+                decoded[1][pos] = termFrequency;
+                rebuild(decoded[0], decoded[1], decoded[0].length);
+                return;
+            }
+            int insertAt = -pos - 1;
+            int[] ids = new int[docCount + 1];
+            int[] tfs = new int[docCount + 1];
+            System.arraycopy(decoded[0], 0, ids, 0, insertAt);
+            System.arraycopy(decoded[1], 0, tfs, 0, insertAt);
+            ids[insertAt] = docId;
+            tfs[insertAt] = termFrequency;
+            System.arraycopy(decoded[0], insertAt, ids, insertAt + 1, docCount - insertAt);
+            System.arraycopy(decoded[1], insertAt, tfs, insertAt + 1, docCount - insertAt);
+            rebuild(ids, tfs, ids.length);
+            return;
+        }
+        append(docId, termFrequency);
+    }
+
+    void remove(int docId) {
+        int[][] decoded = decode();
+        int pos = Arrays.binarySearch(decoded[0], docId);
+        if (pos < 0) {
+            return;
+        }
+        int[] ids = decoded[0];
+        int[] tfs = decoded[1];
+        System.arraycopy(ids, pos + 1, ids, pos, docCount - pos - 1);
+        System.arraycopy(tfs, pos + 1, tfs, pos, docCount - pos - 1);
+        rebuild(ids, tfs, docCount - 1);
+    }
+
+    /**
+     * 解码为 [文档 id 数组, 词频数组]
+     */
+    int[][] decode() {
+        int[] ids = new int[docCount];
+        int[] tfs = new int[docCount];
+        int offset = 0;
+        int docId = 0;
+        for (int i = 0; i < docCount; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            int tf = 0;
+            shift = 0;
+            do {
+                b = data[offset++];
+                tf |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            docId += delta;
+            ids[i] = docId;
+            tfs[i] = tf;
+        }
+        return new int[][]{ids, tfs};
+    }
+
+    private void rebuild(int[] ids, int[] tfs, int count) {
+        length = 0;
+        docCount = 0;
+        lastDocId = 0;
+        for (int i = 0; i < count; i++) {
+            append(ids[i], tfs[i]);
+        }
+        if (data.length > 64 && length < data.length / 4) {
+            data = Arrays.copyOf(data, Math.max(8, length * 2));
+        }
+    }
+
+    private void append(int docId, int termFrequency) {
+        writeVarint(docId - lastDocId);
+        writeVarint(termFrequency);
+        lastDocId = docId;
+        docCount++;
+    }
+
+    private void writeVarint(int value) {
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+        }
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.quiz.index;
+
+import com.example.quiz.model.Question;
+
+import java.util.Collection;
+
+/**
+ * 题库变更监听器：所有内存索引实现该接口，由 {@link QuestionChangePublisher} 在事务提交后统一通知
+ */
+public interface QuestionChangeListener {
+
+    /**
+     * 题目新增或更新（实体已带有数据库生成的 id）
+     */
+    void onSaved(Collection<Question> questions);
+
+    /**
+     * 题目被删除
+     */
+    void onDeleted(Collection<Long> ids);
+
+    /**
+     * 题库被整体清空（如导入前 deleteAll）
+     */
+    void onCleared();
+
+    /**
+     * 内存题库整体重新加载（首次加载、{@link QuestionStore#reload()}、从快照文件 {@link QuestionStore#install}），
+     * 依赖题库内容的索引据此全量重建；默认不处理
+     */
+    default void onReloaded(QuestionSnapshot snapshot) {
+    }
+}
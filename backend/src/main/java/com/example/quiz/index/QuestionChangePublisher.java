@@ -0,0 +1,67 @@
+package com.example.quiz.index;
+
+import com.example.quiz.model.Question;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 题库变更广播：写操作完成后调用，存在事务时延迟到提交之后再通知，避免回滚导致索引与数据库不一致
+ */
+@Component
+public class QuestionChangePublisher {
+
+    @Autowired
+    private List<QuestionChangeListener> listeners;
+
+    public void saved(Collection<Question> questions) {
+        if (questions == null || questions.isEmpty()) {
+            return;
+        }
+        List<Question> copy = new ArrayList<>(questions);
+        afterCommit(() -> listeners.forEach(listener -> listener.onSaved(copy)));
+    }
+
+    public void saved(Question question) {
+        if (question != null) {
+            saved(List.of(question));
+        }
+    }
+
+    public void deleted(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        List<Long> copy = new ArrayList<>(ids);
+        afterCommit(() -> listeners.forEach(listener -> listener.onDeleted(copy)));
+    }
+
+    public void cleared() {
+        afterCommit(() -> listeners.forEach(QuestionChangeListener::onCleared));
+    }
+
+    /**
+     * 内存题库整体重新加载后立即通知（加载本身不是写事务，无需等待提交）
+     */
+    public void reloaded(QuestionSnapshot snapshot) {
+        listeners.forEach(listener -> listener.onReloaded(snapshot));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
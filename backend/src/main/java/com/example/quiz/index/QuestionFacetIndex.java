@@ -0,0 +1,273 @@
+package com.example.quiz.index;
+
+import com.example.quiz.model.Question;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 章节/题型筛选索引：每个章节、每个题型各一个压缩位图（RoaringBitmap）保存题目 id，
+ * “第三章 AND 多选题”这类组合筛选就是两个位图求交，计数用 andCardinality 不产生中间结果。
+ * 随机抽题、分页和分面计数都从这里取 id，不再对数据库做条件查询。
+ * 由内存题库快照（{@link QuestionStore}）构建、题库整体重新加载时重建，不单独查询数据库，
+ * 之后随 {@link QuestionChangeListener} 增量更新。
+ */
+@Component
+public class QuestionFacetIndex implements QuestionChangeListener {
+
+    @Autowired
+    private QuestionStore questionStore;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> byChapter = new TreeMap<>();
+    private final Map<String, RoaringBitmap> byType = new TreeMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * 符合条件的题目 id（升序），条件为 null 表示不限
+     */
+    public long[] ids(String questionType, String chapter) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return toLongArray(filter(questionType, chapter));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 从符合条件的题目中不重复地随机抽取 count 个 id（count 不大于 0 表示全部），顺序随机；
+     * 只按名次用 select 取出抽中的 id，不把位图展开成数组
+     */
+    public long[] sample(String questionType, String chapter, int count, Random random) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matched = filter(questionType, chapter);
+            int n = matched.getCardinality();
+            int[] ranks = RandomSampler.sample(n, count <= 0 ? n : count, random);
+            long[] result = new long[ranks.length];
+            for (int i = 0; i < ranks.length; i++) {
+                result[i] = matched.select(ranks[i]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 符合条件且 id 大于 afterId 的前 limit 个 id（升序），用于游标分页
+     */
+    public long[] idsAfter(long afterId, String questionType, String chapter, int limit) {
+        if (afterId >= Integer.MAX_VALUE) {
+            return new long[0];
+        }
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matched = filter(questionType, chapter);
+            PeekableIntIterator iterator = matched.getIntIterator();
+            iterator.advanceIfNeeded((int) Math.max(afterId + 1, 0));
+            long[] result = new long[Math.min(limit, matched.getCardinality())];
+            int n = 0;
+            while (n < result.length && iterator.hasNext()) {
+                result[n++] = iterator.next();
+            }
+            return n == result.length ? result : Arrays.copyOf(result, n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 符合条件的题目数
+     */
+    public int count(String questionType, String chapter) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            RoaringBitmap typeBitmap = questionType == null ? all : byType.get(questionType);
+            RoaringBitmap chapterBitmap = chapter == null ? all : byChapter.get(chapter);
+            if (typeBitmap == null || chapterBitmap == null) {
+                return 0;
+            }
+            return RoaringBitmap.andCardinality(typeBitmap, chapterBitmap);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 分面计数：在题型条件下各章节的题数、在章节条件下各题型的题数，以及同时满足两个条件的总数
+     */
+    public Map<String, Object> facets(String questionType, String chapter) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            RoaringBitmap typeBitmap = questionType == null ? all : byType.getOrDefault(questionType, new RoaringBitmap());
+            RoaringBitmap chapterBitmap = chapter == null ? all : byChapter.getOrDefault(chapter, new RoaringBitmap());
+            Map<String, Integer> chapters = new LinkedHashMap<>();
+            byChapter.forEach((name, bitmap) -> chapters.put(name, RoaringBitmap.andCardinality(bitmap, typeBitmap)));
+            Map<String, Integer> types = new LinkedHashMap<>();
+            byType.forEach((name, bitmap) -> types.put(name, RoaringBitmap.andCardinality(bitmap, chapterBitmap)));
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("total", RoaringBitmap.andCardinality(typeBitmap, chapterBitmap));
+            result.put("chapters", chapters);
+            result.put("types", types);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onSaved(Collection<Question> questions) {
+        // 在写锁内判断是否已构建：全量构建持有写锁，构建期间提交的变化等构建完成后再应用，不会丢失
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            for (Question question : questions) {
+                if (question.getId() != null) {
+                    int id = Math.toIntExact(question.getId());
+                    remove(id);
+                    add(id, question.getChapter(), question.getQuestionType());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onDeleted(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            ids.forEach(id -> remove(Math.toIntExact(id)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onCleared() {
+        lock.writeLock().lock();
+        try {
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onReloaded(QuestionSnapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            rebuild(snapshot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 调用方需持有读锁；只有一个条件时直接返回索引中的位图，调用方不得修改
+    private RoaringBitmap filter(String questionType, String chapter) {
+        RoaringBitmap base = questionType == null ? all : byType.get(questionType);
+        if (base == null) {
+            return new RoaringBitmap();
+        }
+        if (chapter == null) {
+            return base;
+        }
+        RoaringBitmap chapterBitmap = byChapter.get(chapter);
+        return chapterBitmap == null ? new RoaringBitmap() : RoaringBitmap.and(base, chapterBitmap);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        // 先在锁外触发题库加载：首次加载会经 onReloaded 构建本索引，持有索引锁时不进入 QuestionStore 的锁
+        questionStore.current();
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                // 在写锁内取最新快照：之前被忽略的增量变化已在快照中，之后的变化等构建完成后再应用
+                rebuild(questionStore.current());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 调用方需持有写锁
+    private void rebuild(QuestionSnapshot snapshot) {
+        clear();
+        for (Question question : snapshot.all()) {
+            add(Math.toIntExact(question.getId()), question.getChapter(), question.getQuestionType());
+        }
+        for (RoaringBitmap bitmap : byChapter.values()) {
+            bitmap.runOptimize();
+        }
+        for (RoaringBitmap bitmap : byType.values()) {
+            bitmap.runOptimize();
+        }
+        all.runOptimize();
+        loaded = true;
+    }
+
+    private void add(int id, String chapter, String questionType) {
+        all.add(id);
+        if (chapter != null && !chapter.isBlank()) {
+            byChapter.computeIfAbsent(chapter, key -> new RoaringBitmap()).add(id);
+        }
+        if (questionType != null && !questionType.isBlank()) {
+            byType.computeIfAbsent(questionType, key -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    private void remove(int id) {
+        if (!all.checkedRemove(id)) {
+            return;
+        }
+        removeFrom(byChapter, id);
+        removeFrom(byType, id);
+    }
+
+    private static void removeFrom(Map<String, RoaringBitmap> bitmaps, int id) {
+        Iterator<RoaringBitmap> iterator = bitmaps.values().iterator();
+        while (iterator.hasNext()) {
+            RoaringBitmap bitmap = iterator.next();
+            if (bitmap.checkedRemove(id) && bitmap.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void clear() {
+        all.clear();
+        byChapter.clear();
+        byType.clear();
+    }
+
+    private static long[] toLongArray(RoaringBitmap bitmap) {
+        long[] result = new long[bitmap.getCardinality()];
+        int n = 0;
+        for (int id : bitmap) {
+            result[n++] = id;
+        }
+        return result;
+    }
+}
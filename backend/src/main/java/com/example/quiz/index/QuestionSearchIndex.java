@@ -0,0 +1,262 @@
+package com.example.quiz.index;
+
+import com.example.quiz.model.Question;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 题目全文倒排索引：对题干和选项 A-E 做二元分词，倒排表用压缩整型存储；
+ * 查询为多词 AND，按 BM25 相关度排序，命中的题目从内存题库快照（{@link QuestionStore}）取出，不访问数据库，
+ * 索引本身只保存词项和文档长度，不另存题目文本。
+ * 由内存题库快照构建、题库整体重新加载时重建，不单独查询数据库，之后随 {@link QuestionChangeListener} 增量更新。
+ */
+@Component
+public class QuestionSearchIndex implements QuestionChangeListener {
+
+    // BM25 参数
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    @Autowired
+    private QuestionStore questionStore;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    // 正排：文档 id → 去重后的词项，删除/更新时据此清理倒排表
+    private final Map<Integer, String[]> docTerms = new HashMap<>();
+    private final Map<Integer, Integer> docLengths = new HashMap<>();
+    private long totalLength;
+    private volatile boolean loaded;
+
+    /**
+     * 搜索题目：关键词分词后所有词项都必须命中，结果按相关度降序
+     */
+    public List<Question> search(String keyword) {
+        ensureLoaded();
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(BigramTokenizer.tokenize(keyword)));
+        QuestionSnapshot snapshot = questionStore.current();
+        if (queryTerms.isEmpty()) {
+            return snapshot.all();
+        }
+        lock.readLock().lock();
+        try {
+
+            List<int[][]> lists = new ArrayList<>(queryTerms.size());
+            List<Integer> dfs = new ArrayList<>(queryTerms.size());
+            for (String term : queryTerms) {
+                int[][] decoded = decodeTerm(term);
+                if (decoded[0].length == 0) {
+                    return Collections.emptyList();
+                }
+                lists.add(decoded);
+                dfs.add(decoded[0].length);
+            }
+
+            // 从最短的倒排表开始求交集
+            Integer[] order = new Integer[lists.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingInt(i -> lists.get(i)[0].length));
+
+            int[] candidates = lists.get(order[0])[0];
+            double[] scores = new double[candidates.length];
+            int count = candidates.length;
+            int docCount = docLengths.size();
+            double avgLength = docCount == 0 ? 1 : (double) totalLength / docCount;
+            for (Integer termIndex : order) {
+                int[] ids = lists.get(termIndex)[0];
+                int[] tfs = lists.get(termIndex)[1];
+                double idf = Math.log(1 + (docCount - dfs.get(termIndex) + 0.5) / (dfs.get(termIndex) + 0.5));
+                int kept = 0;
+                int j = 0;
+                for (int i = 0; i < count; i++) {
+                    int docId = candidates[i];
+                    while (j < ids.length && ids[j] < docId) {
+                        j++;
+                    }
+                    if (j < ids.length && ids[j] == docId) {
+                        int docLength = docLengths.getOrDefault(docId, 1);
+                        double tf = tfs[j];
+                        candidates[kept] = docId;
+                        scores[kept] = scores[i] + idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * docLength / avgLength));
+                        kept++;
+                    }
+                }
+                count = kept;
+                if (count == 0) {
+                    return Collections.emptyList();
+                }
+            }
+
+            Integer[] ranked = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                ranked[i] = i;
+            }
+            final int[] hits = candidates;
+            Arrays.sort(ranked, (x, y) -> {
+                int byScore = Double.compare(scores[y], scores[x]);
+                return byScore != 0 ? byScore : Integer.compare(hits[x], hits[y]);
+            });
+            List<Question> result = new ArrayList<>(count);
+            for (Integer i : ranked) {
+                // 快照与索引各自随变更通知更新，刚删除的题目可能暂时只在其中一边
+                Question question = snapshot.get(hits[i]);
+                if (question != null) {
+                    result.add(question);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onSaved(Collection<Question> questions) {
+        // 在写锁内判断是否已构建：全量构建持有写锁，构建期间提交的变化等构建完成后再应用，不会丢失
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return; // 尚未构建，首次查询时会全量加载
+            }
+            for (Question question : questions) {
+                if (question.getId() != null) {
+                    removeDocument(question.getId().intValue());
+                    addDocument(question);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onDeleted(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            ids.forEach(id -> removeDocument(id.intValue()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onCleared() {
+        lock.writeLock().lock();
+        try {
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onReloaded(QuestionSnapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            rebuild(snapshot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        // 先在锁外触发题库加载：首次加载会经 onReloaded 构建本索引，持有索引锁时不进入 QuestionStore 的锁
+        questionStore.current();
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                // 在写锁内取最新快照：之前被忽略的增量变化已在快照中，之后的变化等构建完成后再应用
+                rebuild(questionStore.current());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 调用方需持有写锁
+    private void rebuild(QuestionSnapshot snapshot) {
+        clear();
+        snapshot.all().forEach(this::addDocument);
+        loaded = true;
+    }
+
+    private void clear() {
+        postings.clear();
+        docTerms.clear();
+        docLengths.clear();
+        totalLength = 0;
+    }
+
+    private int[][] decodeTerm(String term) {
+        if (term.length() == 1 && Character.isIdeographic(term.charAt(0))) {
+            // 单个汉字查询：合并所有包含该字的词项（二元组及孤立单字）的倒排表
+            char c = term.charAt(0);
+            TreeMap<Integer, Integer> merged = new TreeMap<>();
+            postings.forEach((indexed, posting) -> {
+                if (indexed.indexOf(c) >= 0) {
+                    int[][] decoded = posting.decode();
+                    for (int i = 0; i < decoded[0].length; i++) {
+                        merged.merge(decoded[0][i], decoded[1][i], Integer::sum);
+                    }
+                }
+            });
+            int[] ids = new int[merged.size()];
+            int[] tfs = new int[merged.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Integer> entry : merged.entrySet()) {
+                ids[i] = entry.getKey();
+                tfs[i++] = entry.getValue();
+            }
+            return new int[][]{ids, tfs};
+        }
+        PostingList list = postings.get(term);
+        return list != null ? list.decode() : new int[][]{new int[0], new int[0]};
+    }
+
+    private void addDocument(Question question) {
+        int docId = question.getId().intValue();
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String field : new String[]{question.getContent(), question.getOptionA(), question.getOptionB(),
+                question.getOptionC(), question.getOptionD(), question.getOptionE()}) {
+            for (String token : BigramTokenizer.tokenize(field)) {
+                frequencies.merge(token, 1, Integer::sum);
+                length++;
+            }
+        }
+        frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new PostingList()).add(docId, tf));
+        docTerms.put(docId, frequencies.keySet().toArray(new String[0]));
+        docLengths.put(docId, length);
+        totalLength += length;
+    }
+
+    private void removeDocument(int docId) {
+        String[] terms = docTerms.remove(docId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            if (list != null) {
+                list.remove(docId);
+                if (list.docCount() == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+        Integer length = docLengths.remove(docId);
+        totalLength -= length != null ? length : 0;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.quiz.index;
+
+import com.example.quiz.model.Question;
+
+import java.util.*;
+
+/**
+ * 题库的不可变快照：按 id 升序的 long[] 与下标对应的题目数组，另按题型分组。
+ * 创建后不再修改，读线程拿到引用即可无锁访问；题库变化时由 {@link QuestionStore} 复制出新快照整体替换。
+ * 快照中的题目是 QuestionStore 复制出的独立对象，调用方不得修改。
+ */
+public final class QuestionSnapshot {
+
+    static final QuestionSnapshot EMPTY = new QuestionSnapshot(new long[0], new Question[0]);
+
+    private final long[] ids;
+    private final Question[] questions;
+    private final List<Question> all;
+    private final Map<String, List<Question>> byType;
+
+    private QuestionSnapshot(long[] ids, Question[] questions) {
+        this.ids = ids;
+        this.questions = questions;
+        this.all = Collections.unmodifiableList(Arrays.asList(questions));
+        Map<String, List<Question>> groups = new HashMap<>();
+        for (Question question : questions) {
+            if (question.getQuestionType() != null) {
+                groups.computeIfAbsent(question.getQuestionType(), type -> new ArrayList<>()).add(question);
+            }
+        }
+        groups.replaceAll((type, list) -> Collections.unmodifiableList(list));
+        this.byType = groups;
+    }
+
+    /**
+     * 由任意顺序的题目构建快照（id 重复时保留后出现的）
+     */
+    static QuestionSnapshot of(Collection<Question> source) {
+        Question[] sorted = sortedDistinct(source);
+        return new QuestionSnapshot(idsOf(sorted), sorted);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * 升序 id 数组（调用方不得修改）
+     */
+    public long[] ids() {
+        return ids;
+    }
+
+    /**
+     * 按 id 升序的全部题目（只读）
+     */
+    public List<Question> all() {
+        return all;
+    }
+
+    /**
+     * 指定题型的题目，按 id 升序（只读）；没有时返回空列表
+     */
+    public List<Question> byType(String questionType) {
+        return byType.getOrDefault(questionType, Collections.emptyList());
+    }
+
+    /**
+     * 题目不存在时返回 null
+     */
+    public Question get(long id) {
+        int pos = Arrays.binarySearch(ids, id);
+        return pos >= 0 ? questions[pos] : null;
+    }
+
+    /**
+     * 第 index 道题（按 id 升序，从 0 开始）
+     */
+    public Question at(int index) {
+        return questions[index];
+    }
+
+    public Question first() {
+        return ids.length == 0 ? null : questions[0];
+    }
+
+    public Question last() {
+        return ids.length == 0 ? null : questions[ids.length - 1];
+    }
+
+    /**
+     * id 大于 currentId 的第一题；已是最后一题时回到第一题
+     */
+    public Question next(long currentId) {
+        if (ids.length == 0) {
+            return null;
+        }
+        int pos = Arrays.binarySearch(ids, currentId);
+        int nextPos = pos >= 0 ? pos + 1 : -pos - 1;
+        return questions[nextPos < ids.length ? nextPos : 0];
+    }
+
+    /**
+     * id 小于 currentId 的最后一题；已是第一题时回到最后一题
+     */
+    public Question previous(long currentId) {
+        if (ids.length == 0) {
+            return null;
+        }
+        int pos = Arrays.binarySearch(ids, currentId);
+        int prevPos = pos >= 0 ? pos - 1 : -pos - 2;
+        return questions[prevPos >= 0 ? prevPos : ids.length - 1];
+    }
+
+    /**
+     * 新增或替换题目后的新快照（当前快照不变）
+     */
+    QuestionSnapshot withSaved(Collection<Question> saved) {
+        Question[] added = sortedDistinct(saved);
+        if (added.length == 0) {
+            return this;
+        }
+        Question[] merged = new Question[questions.length + added.length];
+        int i = 0, j = 0, n = 0;
+        while (i < questions.length || j < added.length) {
+            if (j >= added.length || (i < questions.length && ids[i] < added[j].getId())) {
+                merged[n++] = questions[i++];
+            } else if (i >= questions.length || added[j].getId() < ids[i]) {
+                merged[n++] = added[j++];
+            } else {
+                // 同一 id：新版本替换旧版本
+                merged[n++] = added[j++];
+                i++;
+            }
+        }
+        Question[] result = n == merged.length ? merged : Arrays.copyOf(merged, n);
+        return new QuestionSnapshot(idsOf(result), result);
+    }
+
+    /**
+     * 删除题目后的新快照（当前快照不变）；没有删除任何题目时返回自身
+     */
+    QuestionSnapshot without(Collection<Long> removedIds) {
+        long[] removed = removedIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        Question[] kept = new Question[questions.length];
+        int n = 0;
+        for (Question question : questions) {
+            if (Arrays.binarySearch(removed, question.getId()) < 0) {
+                kept[n++] = question;
+            }
+        }
+        if (n == questions.length) {
+            return this;
+        }
+        Question[] result = Arrays.copyOf(kept, n);
+        return new QuestionSnapshot(idsOf(result), result);
+    }
+
+    // 按 id 升序去重（id 相同保留后出现的），忽略没有 id 的题目
+    private static Question[] sortedDistinct(Collection<Question> source) {
+        Map<Long, Question> byId = new HashMap<>(source.size() * 2);
+        for (Question question : source) {
+            if (question.getId() != null) {
+                byId.put(question.getId(), question);
+            }
+        }
+        Question[] sorted = byId.values().toArray(new Question[0]);
+        Arrays.sort(sorted, Comparator.comparingLong(Question::getId));
+        return sorted;
+    }
+
+    private static long[] idsOf(Question[] questions) {
+        long[] result = new long[questions.length];
+        for (int i = 0; i < questions.length; i++) {
+            result[i] = questions[i].getId();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.quiz.index;
+
+import com.example.quiz.model.Question;
+import com.example.quiz.repo.QuestionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 内存题库：启动完成后全量加载为 {@link QuestionSnapshot}，所有读接口（按 id、翻题、总数、id 列表、导出、随机、按题型）
+ * 只读当前快照，不访问数据库。写操作提交后经 {@link QuestionChangeListener} 通知，加锁复制出新快照再整体替换（写时复制），
+ * 读线程始终看到某个完整版本，无需加锁。
+ * 快照中的题目是复制出的独立对象：不保留内容指纹，题型、章节字符串去重共享。
+ * 绕过变更通知写入数据库的数据（如其他进程）需调用 {@link #reload()} 重新加载。
+ * 也可以由 {@link #install} 直接装入从快照文件读出的题库（启动预热），不查询数据库。
+ * 每次整体加载后经 {@link QuestionChangePublisher#reloaded} 通知各索引从新快照重建，索引不再单独查询数据库。
+ * 变更通知中排在最前：其他监听器收到增量变化时，快照已包含该变化。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QuestionStore implements QuestionChangeListener {
+
+    private final QuestionRepository questionRepository;
+    private final MeterRegistry meterRegistry;
+    // 延迟获取：广播器持有包括本类在内的全部监听器
+    private final ObjectProvider<QuestionChangePublisher> changePublisher;
+
+    // null 表示尚未加载
+    private volatile QuestionSnapshot snapshot;
+    // 题型、章节字符串池，取值很少，所有快照共享同一份字符串（写锁内访问）
+    private final Map<String, String> labels = new HashMap<>();
+    private long loadedAt;
+    private long loadMillis;
+    private long updates;
+    // 最近一次全量加载的来源：database 或 file
+    private String loadSource;
+
+    public QuestionStore(QuestionRepository questionRepository, MeterRegistry meterRegistry,
+                         ObjectProvider<QuestionChangePublisher> changePublisher) {
+        this.questionRepository = questionRepository;
+        this.meterRegistry = meterRegistry;
+        this.changePublisher = changePublisher;
+    }
+
+    // 构造完成后再注册指标，避免在构造器中把 this 交给 Gauge
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("quiz.bank.snapshot.questions", this, store -> {
+                    QuestionSnapshot current = store.snapshot;
+                    return current == null ? 0 : current.size();
+                })
+                .description("内存题库快照中的题目数").register(meterRegistry);
+    }
+
+    /**
+     * 当前快照；尚未加载时同步加载
+     */
+    public QuestionSnapshot current() {
+        QuestionSnapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    /**
+     * 启动完成后预加载，首个请求不必等待；失败时在首次读取时重试
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            current();
+        } catch (RuntimeException e) {
+            System.err.println("题库快照预加载失败，将在首次读取时重试: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 是否已加载（不触发加载）
+     */
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    /**
+     * 用题库快照文件中读出的题目替换当前快照（调用方保证与数据库一致），不查询数据库
+     * @param questions 新构建的独立对象，之后不再修改
+     * @param loadMillis 读取文件的耗时
+     */
+    public synchronized void install(List<Question> questions, long loadMillis) {
+        labels.clear();
+        for (Question question : questions) {
+            question.setQuestionType(label(question.getQuestionType()));
+            question.setChapter(label(question.getChapter()));
+        }
+        snapshot = QuestionSnapshot.of(questions);
+        this.loadMillis = loadMillis;
+        loadedAt = System.currentTimeMillis();
+        updates = 0;
+        loadSource = "file";
+        changePublisher.getObject().reloaded(snapshot);
+    }
+
+    /**
+     * 从数据库重新全量加载并替换当前快照（加载期间读请求仍使用旧快照）
+     */
+    public synchronized QuestionSnapshot reload() {
+        loadFromDatabase();
+        return snapshot;
+    }
+
+    /**
+     * 题目数、最近一次全量加载的来源、时间与耗时、之后增量替换快照的次数
+     */
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("questions", snapshot == null ? 0 : snapshot.size());
+        result.put("source", loadSource);
+        result.put("loadedAt", loadedAt);
+        result.put("loadMillis", loadMillis);
+        result.put("updates", updates);
+        return result;
+    }
+
+    @Override
+    public void onSaved(Collection<Question> questions) {
+        synchronized (this) {
+            if (snapshot == null) {
+                return; // 尚未加载，首次使用时会从数据库读到最新数据
+            }
+            List<Question> copies = new ArrayList<>(questions.size());
+            for (Question question : questions) {
+                if (question.getId() != null) {
+                    copies.add(copy(question));
+                }
+            }
+            replace(snapshot.withSaved(copies));
+        }
+    }
+
+    @Override
+    public void onDeleted(Collection<Long> ids) {
+        synchronized (this) {
+            if (snapshot != null) {
+                replace(snapshot.without(ids));
+            }
+        }
+    }
+
+    @Override
+    public void onCleared() {
+        synchronized (this) {
+            if (snapshot == null) {
+                // 尚未加载时清空等同于加载了一个空题库
+                loadedAt = System.currentTimeMillis();
+                loadSource = "database";
+            }
+            replace(QuestionSnapshot.EMPTY);
+        }
+    }
+
+    private void replace(QuestionSnapshot next) {
+        if (next != snapshot) {
+            snapshot = next;
+            updates++;
+        }
+    }
+
+    private synchronized QuestionSnapshot load() {
+        if (snapshot == null) {
+            loadFromDatabase();
+        }
+        return snapshot;
+    }
+
+    // 调用方需持有本对象的锁；通知在锁内发出，索引按加载顺序重建（锁顺序始终是 QuestionStore → 索引）
+    private void loadFromDatabase() {
+        long start = System.nanoTime();
+        labels.clear();
+        List<Question> rows = questionRepository.findAll(Sort.by("id"));
+        List<Question> copies = new ArrayList<>(rows.size());
+        for (Question row : rows) {
+            copies.add(copy(row));
+        }
+        snapshot = QuestionSnapshot.of(copies);
+        loadMillis = (System.nanoTime() - start) / 1_000_000;
+        loadedAt = System.currentTimeMillis();
+        updates = 0;
+        loadSource = "database";
+        changePublisher.getObject().reloaded(snapshot);
+    }
+
+    // 与持久化上下文脱离的副本，后续对实体的修改不会影响快照
+    private Question copy(Question source) {
+        Question question = new Question();
+        question.setId(source.getId());
+        question.setContent(source.getContent());
+        question.setOptionA(source.getOptionA());
+        question.setOptionB(source.getOptionB());
+        question.setOptionC(source.getOptionC());
+        question.setOptionD(source.getOptionD());
+        question.setOptionE(source.getOptionE());
+        question.setAnswer(source.getAnswer());
+        question.setQuestionType(label(source.getQuestionType()));
+        question.setChapter(label(source.getChapter()));
+        return question;
+    }
+
+    private String label(String value) {
+        return value == null ? null : labels.computeIfAbsent(value, key -> key);
+    }
+}
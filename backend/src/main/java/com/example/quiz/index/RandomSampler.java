@@ -0,0 +1,40 @@
+package com.example.quiz.index;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 随机抽样工具：Floyd 算法从 [0, n) 中不重复地抽取 k 个下标，内存与耗时只与 k 相关
+ */
+public final class RandomSampler {
+
+    private RandomSampler() {
+    }
+
+    /**
+     * 从 [0, n) 中抽取 min(k, n) 个不重复下标，返回顺序随机
+     */
+    public static int[] sample(int n, int k, Random random) {
+        int size = Math.max(0, Math.min(k, n));
+        Set<Integer> chosen = new HashSet<>(size * 2);
+        int[] result = new int[size];
+        int count = 0;
+        for (int j = n - size; j < n; j++) {
+            int t = random.nextInt(j + 1);
+            int picked = chosen.add(t) ? t : j;
+            if (picked == j) {
+                chosen.add(j);
+            }
+            result[count++] = picked;
+        }
+        // Floyd 算法的输出顺序有偏，洗牌一次得到均匀的随机顺序
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = result[i];
+            result[i] = result[j];
+            result[j] = tmp;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.quiz.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导入流水线指标：各阶段耗时（提取、预处理、解析、入库）、输入字节数、提取字符数、识别题数、未识别字符数、入库行数。
+ * 通过 Actuator 以 Prometheus 格式暴露（/actuator/prometheus），source 标签区分导入入口（pdf / text / document）。
+ */
+@Component
+public class ImportMetrics {
+
+    public enum Stage {
+        EXTRACT, PREPROCESS, PARSE, PERSIST;
+
+        private final String tag = name().toLowerCase();
+    }
+
+    private final MeterRegistry registry;
+
+    public ImportMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 为一次导入（一个文件或一段文本）创建阶段计时器
+     */
+    public StageClock startClock(String source) {
+        return new StageClock(source);
+    }
+
+    public void recordBytes(String source, long bytes) {
+        DistributionSummary.builder("quiz.import.bytes")
+                .description("每次导入的输入大小")
+                .baseUnit("bytes")
+                .tag("source", source)
+                .register(registry)
+                .record(bytes);
+    }
+
+    /**
+     * 解析结果：提取的字符数、识别出的题数、未识别的字符数
+     */
+    public void recordParsed(String source, long charsExtracted, long questionsMatched, long unmatchedChars) {
+        DistributionSummary.builder("quiz.import.chars.extracted")
+                .description("每次导入提取出的字符数")
+                .baseUnit("chars")
+                .tag("source", source)
+                .register(registry)
+                .record(charsExtracted);
+        Counter.builder("quiz.import.questions.matched")
+                .description("识别出的题目数")
+                .tag("source", source)
+                .register(registry)
+                .increment(questionsMatched);
+        DistributionSummary.builder("quiz.import.unmatched.chars")
+                .description("每次导入中未能识别为题目的字符数")
+                .baseUnit("chars")
+                .tag("source", source)
+                .register(registry)
+                .record(unmatchedChars);
+    }
+
+    public void recordPersisted(String source, long rows) {
+        Counter.builder("quiz.import.rows.persisted")
+                .description("写入数据库的题目行数")
+                .tag("source", source)
+                .register(registry)
+                .increment(rows);
+    }
+
+    public void recordDuplicates(String source, long skipped) {
+        Counter.builder("quiz.import.duplicates.skipped")
+                .description("内容指纹与已有题目相同而跳过的题目数")
+                .tag("source", source)
+                .register(registry)
+                .increment(skipped);
+    }
+
+    /**
+     * 一次导入结束（成功或失败）
+     */
+    public void recordResult(String source, boolean success) {
+        Counter.builder("quiz.import.runs")
+                .description("导入次数")
+                .tag("source", source)
+                .tag("result", success ? "success" : "failure")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * 阶段计时：各阶段在流式导入中交替进行（提取回调里解析，解析回调里入库），
+     * 用 {@link #enter} 切换当前阶段、返回上一个阶段，记录的是每个阶段自身的耗时（不含嵌套的下游阶段）。
+     * 只能在单个线程中使用。
+     */
+    public final class StageClock {
+
+        private final String source;
+        private final long[] nanos = new long[Stage.values().length];
+        private Stage current;
+        private long since;
+
+        private StageClock(String source) {
+            this.source = source;
+        }
+
+        public Stage enter(Stage stage) {
+            long now = System.nanoTime();
+            if (current != null) {
+                nanos[current.ordinal()] += now - since;
+            }
+            Stage previous = current;
+            current = stage;
+            since = now;
+            return previous;
+        }
+
+        /**
+         * 把已计入 from 阶段的一部分耗时改记到 to 阶段（如增量解析器内部的预处理耗时）
+         */
+        public void reassign(Stage from, Stage to, long amountNanos) {
+            long moved = Math.min(amountNanos, nanos[from.ordinal()]);
+            nanos[from.ordinal()] -= moved;
+            nanos[to.ordinal()] += moved;
+        }
+
+        /**
+         * 停止计时并记录各阶段耗时（未经历的阶段不记录）
+         */
+        public void stop() {
+            enter(null);
+            for (Stage stage : Stage.values()) {
+                if (nanos[stage.ordinal()] > 0) {
+                    Timer.builder("quiz.import.stage")
+                            .description("导入各阶段耗时")
+                            .tag("source", source)
+                            .tag("stage", stage.tag)
+                            .register(registry)
+                            .record(nanos[stage.ordinal()], TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.quiz.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 作答记录：判分后先进入内存队列，由 AttemptRecorder 定时批量写入 answer_attempt 表
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "answer_attempt", indexes = {
+        @Index(name = "idx_attempt_question", columnList = "question_id"),
+        @Index(name = "idx_attempt_user", columnList = "user_id")
+})
+public class AnswerAttempt {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    // 前端生成的匿名用户标识，可为空
+    @Column(name = "user_id", length = 64)
+    private String userId;
+
+    // 作答选项，按字母顺序，如 AC
+    @Column(length = 5)
+    private String choices;
+
+    private boolean correct;
+
+    @Column(name = "answered_at")
+    private LocalDateTime answeredAt;
+
+    public AnswerAttempt(Long questionId, String userId, String choices, boolean correct, LocalDateTime answeredAt) {
+        this.questionId = questionId;
+        this.userId = userId;
+        this.choices = choices;
+        this.correct = correct;
+        this.answeredAt = answeredAt;
+    }
+}
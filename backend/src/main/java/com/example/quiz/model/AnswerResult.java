@@ -0,0 +1,18 @@
+package com.example.quiz.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 判分结果：提交后才返回正确答案
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerResult {
+    private Long questionId;
+    private boolean correct;
+    private String choices;       // 规范化后的作答，如 AC
+    private String correctAnswer; // 正确答案，如 ABD
+}
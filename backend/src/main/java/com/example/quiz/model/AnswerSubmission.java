@@ -0,0 +1,12 @@
+package com.example.quiz.model;
+
+import lombok.Data;
+
+/**
+ * 提交答案：choices 为所选选项（如 "A"、"AC"，顺序、大小写、分隔符不限），userId 为前端生成的匿名用户标识（可选）
+ */
+@Data
+public class AnswerSubmission {
+    private String choices;
+    private String userId;
+}
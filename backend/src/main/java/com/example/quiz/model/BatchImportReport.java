@@ -0,0 +1,16 @@
+package com.example.quiz.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 多文件批量导入报告：每个文件独立统计，失败的文件不影响其他文件
+ */
+@Data
+public class BatchImportReport {
+    private List<FileImportResult> files;
+    private int totalImported;
+    private int failedFiles;
+    private long elapsedMillis;
+}
@@ -0,0 +1,18 @@
+package com.example.quiz.model;
+
+import lombok.Data;
+
+/**
+ * 单个文件的导入结果
+ */
+@Data
+public class FileImportResult {
+    private String file;
+    private boolean success;
+    private int importedCount;
+    private int duplicateCount; // 与已有题目重复而跳过的题数
+    private long unmatchedChars;
+    private long parseMillis; // 提取 + 解析耗时
+    private long saveMillis;  // 入库耗时
+    private String error;
+}
@@ -0,0 +1,28 @@
+package com.example.quiz.model;
+
+import lombok.Data;
+
+/**
+ * 导入任务状态：提交后立即返回 jobId，通过 GET /api/questions/import/{jobId} 轮询
+ */
+@Data
+public class ImportJob {
+
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED
+    }
+
+    private String jobId;
+    private String type; // text / pdf
+    private State state;
+    private long charsParsed;
+    private long questionsFound;
+    private long rowsSaved;
+    private long filesProcessed; // pdf 任务已处理完的文件数（含失败）
+    private long filesFailed;
+    private String error;
+    private Long submittedAt;
+    private Long startedAt;
+    private Long finishedAt;
+    private Object result; // 成功后的结果：text 为导入题数，pdf 为 BatchImportReport
+}
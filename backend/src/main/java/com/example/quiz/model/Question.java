@@ -1,11 +1,19 @@
 package com.example.quiz.model;
 
 
+import com.example.quiz.parse.QuestionFingerprint;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
 
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_question_content_hash", columnList = "content_hash"),
+        @Index(name = "idx_question_chapter", columnList = "chapter"),
+        @Index(name = "idx_question_type", columnList = "question_type")
+})
 public class Question {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,11 +31,24 @@ public class Question {
     private String optionD;
     @Column(columnDefinition = "TEXT")
     private String optionE;
+    // 答案只接收不输出：读接口不再把答案发给前端，判分走 POST /api/questions/{id}/answer
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String answer; // e.g. A
     @Column(length = 255, name = "question_type")
     private String questionType;
      
     @Column(length = 10)
     private String chapter;
+
+    // 内容指纹（题干 + 选项 + 答案归一化后的 SHA-256），导入时据此去重
+    @JsonIgnore
+    @Column(length = 64, name = "content_hash")
+    private String contentHash;
+
+    @PrePersist
+    @PreUpdate
+    void updateContentHash() {
+        contentHash = QuestionFingerprint.of(this);
+    }
    
 }
@@ -0,0 +1,22 @@
+package com.example.quiz.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 单题难度统计：作答次数、答对次数、正确率，以及各选项被选次数（多选题一次作答可计入多个选项）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionDifficulty {
+    private Long questionId;
+    private long attempts;
+    private long correct;
+    private long wrong;
+    private double correctRate;
+    private Map<String, Long> picks;
+}
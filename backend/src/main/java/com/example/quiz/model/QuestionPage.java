@@ -0,0 +1,19 @@
+package com.example.quiz.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页结果：nextCursor 为下一页的不透明游标，没有下一页时为 null
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionPage {
+    private List<Question> items;
+    private String nextCursor;
+    private Long total;
+}
@@ -0,0 +1,34 @@
+package com.example.quiz.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 题目作答统计快照（question_stats 表）：内存计数器定期整行覆盖写入，启动后首次使用时读回作为起点
+ */
+@Data
+@Entity
+@Table(name = "question_stats")
+public class QuestionStat {
+    @Id
+    @Column(name = "question_id")
+    private Long questionId;
+
+    private long attempts;
+    private long correct;
+    @Column(name = "pick_a")
+    private long pickA;
+    @Column(name = "pick_b")
+    private long pickB;
+    @Column(name = "pick_c")
+    private long pickC;
+    @Column(name = "pick_d")
+    private long pickD;
+    @Column(name = "pick_e")
+    private long pickE;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,21 @@
+package com.example.quiz.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 题目窗口：按 id 顺序排列的当前题及其前后若干题，centerIndex 为当前题在 items 中的下标；
+ * wraps 为 true 表示窗口越过了首题/末题，从另一端接续
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionWindow {
+    private List<Question> items;
+    private Integer centerIndex;
+    private boolean wraps;
+    private Integer total;
+}
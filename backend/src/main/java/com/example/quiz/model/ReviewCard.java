@@ -0,0 +1,45 @@
+package com.example.quiz.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 错题复习卡片（review_card 表）：每个用户每道答错过的题一行，记录 SM-2 复习计划；
+ * 内存中的复习计划有变化时整行覆盖写入，用户首次访问时按 user_id 读回
+ */
+@Data
+@Entity
+@Table(name = "review_card", uniqueConstraints =
+        @UniqueConstraint(name = "uk_review_user_question", columnNames = {"user_id", "question_id"}))
+public class ReviewCard {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", length = 64, nullable = false)
+    private String userId;
+
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    // 连续答对次数，答错清零
+    private int repetitions;
+
+    // 当前复习间隔（天）
+    @Column(name = "interval_days")
+    private int intervalDays;
+
+    // 难易系数，最小 1.3
+    private float ease;
+
+    // 累计答错次数
+    private int lapses;
+
+    @Column(name = "due_at")
+    private LocalDateTime dueAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
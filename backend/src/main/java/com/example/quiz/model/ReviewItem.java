@@ -0,0 +1,23 @@
+package com.example.quiz.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 下一道待复习的题目及其复习计划
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewItem {
+    private Question question;
+    private LocalDateTime dueAt;
+    private int intervalDays;
+    private int repetitions;
+    private int lapses;
+    // 当前已到期的卡片数（含本题）
+    private int dueCount;
+}
@@ -0,0 +1,19 @@
+package com.example.quiz.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户复习概况：卡片总数、已到期数、最早到期时间（没有卡片时为 null）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSummary {
+    private int totalCards;
+    private int dueCount;
+    private LocalDateTime nextDueAt;
+}
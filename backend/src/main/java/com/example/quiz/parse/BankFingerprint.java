@@ -0,0 +1,66 @@
+package com.example.quiz.parse;
+
+import com.example.quiz.model.Question;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 整个题库的指纹：按 id 升序依次累加每题的 id、内容指纹（{@link QuestionFingerprint}）、题型和章节后取 SHA-256。
+ * 数据库一侧只需读 id、content_hash、question_type、chapter 四个短列即可算出，
+ * 用来判断快照文件与数据库是否为同一份题库（增删题目、修改题干/选项/答案/题型/章节都会改变指纹）。
+ */
+public final class BankFingerprint {
+
+    private static final char FIELD_SEPARATOR = '\u0001';
+    private static final char NULL_MARK = '\u0002';
+
+    private final MessageDigest digest;
+    private final StringBuilder row = new StringBuilder(128);
+    private int count;
+
+    public BankFingerprint() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * 累加一题，调用方须按 id 升序传入
+     */
+    public void add(long id, String contentHash, String questionType, String chapter) {
+        row.setLength(0);
+        row.append(id).append(FIELD_SEPARATOR);
+        appendField(contentHash);
+        appendField(questionType);
+        appendField(chapter);
+        digest.update(row.toString().getBytes(StandardCharsets.UTF_8));
+        count++;
+    }
+
+    /**
+     * 按题目当前内容重新计算内容指纹后累加（不使用 contentHash 字段）
+     */
+    public void add(Question question) {
+        add(question.getId(), QuestionFingerprint.of(question), question.getQuestionType(), question.getChapter());
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return 64 位十六进制；调用后不能再累加
+     */
+    public String hex() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void appendField(String value) {
+        row.append(value == null ? String.valueOf(NULL_MARK) : value).append(FIELD_SEPARATOR);
+    }
+}
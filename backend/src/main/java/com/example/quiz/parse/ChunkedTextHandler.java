@@ -0,0 +1,99 @@
+package com.example.quiz.parse;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.function.Consumer;
+
+/**
+ * 流式文本 SAX 处理器：Tika 每解析完一页（PDF 输出为 &lt;div class="page"&gt;）或缓冲区达到 chunkSize 时，
+ * 就把已积累的文本交给下游，不再像 BodyContentHandler 那样把整个文档拼成一个字符串。
+ * 与 BodyContentHandler 一样只输出 &lt;body&gt; 内的文本，&lt;head&gt;/&lt;title&gt;（如 PDF 元数据标题）不进入解析器。
+ */
+public class ChunkedTextHandler extends DefaultHandler {
+
+    private final Consumer<String> chunkConsumer;
+    private final int chunkSize;
+    private final StringBuilder buffer;
+    private long totalChars;
+    private int bodyDepth; // 当前所在的 <body> 层数，大于 0 时才收集文本
+
+    public ChunkedTextHandler(Consumer<String> chunkConsumer, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize 必须大于 0");
+        }
+        this.chunkConsumer = chunkConsumer;
+        this.chunkSize = chunkSize;
+        this.buffer = new StringBuilder(chunkSize);
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (bodyDepth > 0) {
+            append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) {
+        if (bodyDepth > 0) {
+            append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        if ("body".equals(localName)) {
+            bodyDepth++;
+            return;
+        }
+        // 段落开始补换行，保持与 BodyContentHandler 相近的行结构
+        if (bodyDepth > 0 && "p".equals(localName) && buffer.length() > 0 && buffer.charAt(buffer.length() - 1) != '\n') {
+            buffer.append('\n');
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        if ("body".equals(localName)) {
+            bodyDepth--;
+            flush();
+        } else if ("div".equals(localName)) {
+            // 一页结束即输出
+            flush();
+        }
+    }
+
+    @Override
+    public void endDocument() {
+        flush();
+    }
+
+    /**
+     * 已输出的字符总数
+     */
+    public long getTotalChars() {
+        return totalChars;
+    }
+
+    private void append(char[] ch, int start, int length) {
+        while (length > 0) {
+            int n = Math.min(length, chunkSize - buffer.length());
+            buffer.append(ch, start, n);
+            start += n;
+            length -= n;
+            if (buffer.length() >= chunkSize) {
+                flush();
+            }
+        }
+    }
+
+    private void flush() {
+        if (buffer.length() == 0) {
+            return;
+        }
+        totalChars += buffer.length();
+        chunkConsumer.accept(buffer.toString());
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.quiz.parse;
+
+import com.example.quiz.model.Question;
+import com.example.utils.TextNormalizer;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 增量题目解析器：文本分块喂入（{@link #feed}），由 {@link QuestionLexer} 边读边切分、{@link QuestionAssembler} 组装，
+ * 每当一道题的边界闭合（遇到下一题题号、材料标题或题型/章节标识）就立即交给下游，已扫描的文本随即丢弃。
+ * 内存占用只与单道题的大小有关，与文档大小无关。
+ */
+public class IncrementalQuestionParser {
+
+    private final QuestionAssembler assembler;
+    private final QuestionLexer lexer;
+    // 尚未扫描的文本；下标 0 处保留上一个已扫描字符，供词法分析判断行首
+    private final StringBuilder window = new StringBuilder();
+    private int scanFrom;
+    private long windowOffset; // window 下标 0 在整个文档中的位置
+    // 与 ParseServiceImpl.preprocessDocument 相同的预处理，跨分块保持换行合并等状态
+    private final TextNormalizer.Session normalizer = TextNormalizer.DOCUMENT.session();
+    private long charsParsed;
+    private long normalizeNanos; // 预处理（符号、换行统一）累计耗时
+
+    /**
+     * @param sink      每解析出一道题立即回调
+     * @param maxWindow 单道题允许的最大字符数，超出则视为无法识别的内容丢弃
+     */
+    public IncrementalQuestionParser(Consumer<Question> sink, int maxWindow) {
+        this.assembler = new QuestionAssembler(sink, maxWindow);
+        this.lexer = new QuestionLexer(assembler);
+    }
+
+    /**
+     * 喂入一段文本（任意切分位置均可）
+     */
+    public void feed(CharSequence chunk) {
+        long start = System.nanoTime();
+        normalizer.append(chunk, window);
+        charsParsed += chunk.length();
+        normalizeNanos += System.nanoTime() - start;
+        // 末尾保留一个最长标识的长度不扫描，防止标识被分块截断
+        int limit = window.length() - QuestionLexer.MAX_TOKEN_LENGTH;
+        if (limit > scanFrom) {
+            scanFrom = lexer.lex(window, scanFrom, limit, windowOffset);
+            compact();
+        }
+    }
+
+    /**
+     * 文档结束：扫描窗口中剩余的文本并闭合最后一道题
+     */
+    public void finish() {
+        scanFrom = lexer.lex(window, scanFrom, window.length(), windowOffset);
+        assembler.finish(windowOffset + window.length());
+        compact();
+    }
+
+    public long getCharsParsed() {
+        return charsParsed;
+    }
+
+    public long getNormalizeNanos() {
+        return normalizeNanos;
+    }
+
+    public long getQuestionsFound() {
+        return assembler.getQuestionsFound();
+    }
+
+    public long getUnmatchedChars() {
+        return assembler.getUnmatchedChars();
+    }
+
+    public List<UnmatchedSpan> getUnmatchedSpans() {
+        return assembler.getUnmatchedSpans();
+    }
+
+    // 丢弃已扫描的文本，只保留最后一个字符作为上下文
+    private void compact() {
+        int drop = scanFrom - 1;
+        if (drop > 0) {
+            window.delete(0, drop);
+            windowOffset += drop;
+            scanFrom -= drop;
+        }
+    }
+}
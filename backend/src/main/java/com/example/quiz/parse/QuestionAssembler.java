@@ -0,0 +1,257 @@
+package com.example.quiz.parse;
+
+import com.example.quiz.model.Question;
+import com.example.quiz.parse.QuestionLexer.TokenType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 题目组装状态机：按顺序接收 {@link QuestionLexer} 的词法单元，拼出题干、答案、选项 A-E，
+ * 遇到下一个题号/材料/题型/章节标识时当前题目闭合，完整则立即交给下游，否则记为未识别区间。
+ */
+public class QuestionAssembler implements QuestionLexer.TokenSink {
+
+    // 最多记录的未识别区间个数（超出只累计字符数），避免异常文档撑大内存
+    private static final int MAX_RECORDED_SPANS = 1000;
+    private static final int STEM = -1;
+
+    private final Consumer<Question> sink;
+    private final int maxQuestionChars;
+
+    private String currentType = "单选题";
+    private String currentChapter; // 当前所在章节（第X章 / 绪论），未出现章节标识时为 null
+    private boolean sectionSeen;
+    private String materialNo;     // 当前所在材料编号，不在材料中为 null
+    private final StringBuilder materialText = new StringBuilder(); // 材料正文，并入该材料第一道小题的题干
+    private boolean inHeading;     // 标题行剩余部分（如“第一章 物质世界”）不计入未识别内容
+
+    // 当前正在组装的题目
+    private boolean open;
+    private long questionStart;
+    private String stemPrefix;
+    private final StringBuilder stem = new StringBuilder();
+    private final StringBuilder[] options = new StringBuilder[5];
+    private String answer;
+    private int field;
+    private int nextOption;
+    private int questionChars;
+
+    private long questionsFound;
+    private long unmatchedChars;
+    private final List<UnmatchedSpan> unmatchedSpans = new ArrayList<>();
+
+    /**
+     * @param sink             每组装出一道完整题目立即回调
+     * @param maxQuestionChars 单道题允许的最大字符数，超出视为格式错误并丢弃
+     */
+    public QuestionAssembler(Consumer<Question> sink, int maxQuestionChars) {
+        this.sink = sink;
+        this.maxQuestionChars = maxQuestionChars;
+        for (int i = 0; i < options.length; i++) {
+            options[i] = new StringBuilder();
+        }
+    }
+
+    @Override
+    public void accept(TokenType type, String value, String raw, long offset) {
+        switch (type) {
+            case CHAPTER -> {
+                close(offset);
+                currentChapter = value;
+                materialNo = null;
+                inHeading = true;
+            }
+            case SECTION -> {
+                close(offset);
+                currentType = value;
+                sectionSeen = true;
+                materialNo = null;
+                inHeading = true;
+            }
+            case MATERIAL -> {
+                close(offset);
+                materialNo = value;
+                materialText.setLength(0);
+                inHeading = false;
+            }
+            case QUESTION_NUMBER -> {
+                close(offset);
+                materialNo = null;
+                begin(offset, null);
+            }
+            case INLINE_NUMBER -> {
+                // 同一行内的“N、”只有在上一题已完整时才视为新题号，否则属于题干/选项文字
+                if (!open || isComplete()) {
+                    close(offset);
+                    materialNo = null;
+                    begin(offset, null);
+                } else {
+                    text(raw, offset);
+                }
+            }
+            case SUB_NUMBER -> {
+                if (materialNo != null) {
+                    close(offset);
+                    begin(offset, "【材料" + materialNo + "】");
+                    // 与原正则解析一致：题干保留小题号，第一道小题的题干前带上材料正文
+                    stem.append(materialText).append(raw);
+                    questionChars += materialText.length() + raw.length();
+                    materialText.setLength(0);
+                } else {
+                    text(raw, offset);
+                }
+            }
+            case ANSWER -> {
+                if (open && answer == null && field == STEM) {
+                    answer = value;
+                } else {
+                    text(raw, offset);
+                }
+            }
+            case OPTION -> {
+                if (open && answer != null && value.charAt(0) - 'A' == nextOption) {
+                    field = nextOption++;
+                } else {
+                    text(raw, offset);
+                }
+            }
+            case TEXT -> text(raw, offset);
+        }
+    }
+
+    /**
+     * 文档结束，闭合最后一道题
+     * @param endOffset 文档总长度
+     */
+    public void finish(long endOffset) {
+        close(endOffset);
+    }
+
+    public long getQuestionsFound() {
+        return questionsFound;
+    }
+
+    public long getUnmatchedChars() {
+        return unmatchedChars;
+    }
+
+    public List<UnmatchedSpan> getUnmatchedSpans() {
+        return unmatchedSpans;
+    }
+
+    private void text(String raw, long offset) {
+        String remaining = raw;
+        long remainingOffset = offset;
+        if (inHeading) {
+            int newline = raw.indexOf('\n');
+            if (newline < 0) {
+                return;
+            }
+            inHeading = false;
+            remaining = raw.substring(newline + 1);
+            remainingOffset = offset + newline + 1;
+        }
+        if (open) {
+            (field == STEM ? stem : options[field]).append(remaining);
+            questionChars += remaining.length();
+            if (questionChars > maxQuestionChars) {
+                // 一道题长得离谱，说明边界没识别出来，整体丢弃
+                open = false;
+                unmatched(questionStart, remainingOffset + remaining.length());
+            }
+        } else if (materialNo != null) {
+            materialText.append(remaining);
+            if (materialText.length() > maxQuestionChars) {
+                // 材料之后迟迟没有小题，不再当作材料，之后的文本计入未识别内容
+                materialNo = null;
+                materialText.setLength(0);
+            }
+        } else if (!remaining.isBlank()) {
+            // 首尾空白不计入未识别区间
+            int from = 0;
+            int to = remaining.length();
+            while (Character.isWhitespace(remaining.charAt(from))) {
+                from++;
+            }
+            while (Character.isWhitespace(remaining.charAt(to - 1))) {
+                to--;
+            }
+            unmatched(remainingOffset + from, remainingOffset + to);
+        }
+    }
+
+    private void begin(long offset, String prefix) {
+        open = true;
+        questionStart = offset;
+        stemPrefix = prefix;
+        stem.setLength(0);
+        for (StringBuilder option : options) {
+            option.setLength(0);
+        }
+        answer = null;
+        field = STEM;
+        nextOption = 0;
+        questionChars = 0;
+    }
+
+    private boolean isComplete() {
+        // 选择题至少要有 A-D 四个选项；材料小题可以没有选项
+        return answer != null && (stemPrefix != null || nextOption >= 4);
+    }
+
+    private void close(long offset) {
+        if (!open) {
+            return;
+        }
+        open = false;
+        if (!isComplete()) {
+            unmatched(questionStart, offset);
+            return;
+        }
+        Question question = new Question();
+        question.setContent((stemPrefix != null ? stemPrefix : "") + clean(stem));
+        question.setAnswer(answer);
+        question.setOptionA(clean(options[0]));
+        question.setOptionB(clean(options[1]));
+        question.setOptionC(clean(options[2]));
+        question.setOptionD(clean(options[3]));
+        if (nextOption > 4) {
+            question.setOptionE(clean(options[4]));
+        }
+        question.setChapter(currentChapter);
+        if (stemPrefix != null) {
+            question.setQuestionType("材料分析题");
+        } else if (sectionSeen) {
+            question.setQuestionType(currentType);
+        } else {
+            // 没有题型标识时按答案个数判断
+            question.setQuestionType(answer.length() > 1 ? "多选题" : "单选题");
+        }
+        questionsFound++;
+        sink.accept(question);
+    }
+
+    private void unmatched(long start, long end) {
+        if (end <= start) {
+            return;
+        }
+        unmatchedChars += end - start;
+        if (!unmatchedSpans.isEmpty()) {
+            UnmatchedSpan last = unmatchedSpans.get(unmatchedSpans.size() - 1);
+            if (last.getEnd() == start) {
+                last.setEnd(end);
+                return;
+            }
+        }
+        if (unmatchedSpans.size() < MAX_RECORDED_SPANS) {
+            unmatchedSpans.add(new UnmatchedSpan(start, end));
+        }
+    }
+
+    // 去除首尾空白，内部换行替换为空格（PDF 提取的文本常在题干/选项中间断行）
+    private static String clean(CharSequence value) {
+        return value.toString().replace('\n', ' ').trim();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.quiz.parse;
+
+import com.example.quiz.model.Question;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * 题目内容指纹：题干 + 选项 A-E + 答案归一化后取 SHA-256（64 位十六进制）。
+ * 归一化规则：去掉所有空白，全角字符转半角，英文字母转小写，答案字母排序（AB 与 BA 视为相同），
+ * 因此同一道题从不同来源（PDF、粘贴文本）导入，或只是空格、全角半角不同，指纹相同。
+ */
+public final class QuestionFingerprint {
+
+    // 字段分隔符，避免“题干末尾 + 选项开头”拼接后与另一道题混淆
+    private static final char FIELD_SEPARATOR = '\u0001';
+
+    private QuestionFingerprint() {
+    }
+
+    public static String of(Question question) {
+        StringBuilder normalized = new StringBuilder(256);
+        appendNormalized(normalized, question.getContent());
+        appendNormalized(normalized, question.getOptionA());
+        appendNormalized(normalized, question.getOptionB());
+        appendNormalized(normalized, question.getOptionC());
+        appendNormalized(normalized, question.getOptionD());
+        appendNormalized(normalized, question.getOptionE());
+        appendNormalized(normalized, sortedAnswer(question.getAnswer()));
+        return sha256(normalized.toString());
+    }
+
+    private static void appendNormalized(StringBuilder target, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == 12288 || Character.isWhitespace(c)) {
+                    continue;
+                }
+                if (c >= 65281 && c <= 65374) {
+                    c = (char) (c - 65248);
+                }
+                if (c >= 'A' && c <= 'Z') {
+                    c = (char) (c + ('a' - 'A'));
+                }
+                target.append(c);
+            }
+        }
+        target.append(FIELD_SEPARATOR);
+    }
+
+    private static String sortedAnswer(String answer) {
+        if (answer == null) {
+            return null;
+        }
+        char[] letters = answer.toCharArray();
+        Arrays.sort(letters);
+        return new String(letters);
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
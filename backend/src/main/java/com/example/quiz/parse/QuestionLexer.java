@@ -0,0 +1,258 @@
+package com.example.quiz.parse;
+
+/**
+ * 题库文本词法分析器：单次线性扫描，识别章节标识、题型标识、材料标题、题号、答案括号、选项标号，
+ * 其余内容作为普通文本。每个位置只做常数长度的前瞻，不回溯，耗时与文本长度成正比。
+ * 非线程安全，每次解析新建实例。
+ */
+public class QuestionLexer {
+
+    public enum TokenType {
+        CHAPTER,         // 第X章 / 绪论（行首）
+        SECTION,         // 一、单项选择题（行首），value 为题型
+        MATERIAL,        // 【材料N】，value 为材料编号
+        QUESTION_NUMBER, // 行首题号 N、
+        INLINE_NUMBER,   // 空白之后的题号 N、（题目挤在同一行时），是否作为题号由解析器根据上下文决定
+        SUB_NUMBER,      // 材料小题号 (N)
+        ANSWER,          // 答案括号 (AB)，value 为答案字母
+        OPTION,          // 选项标号 A、，value 为选项字母
+        TEXT
+    }
+
+    public interface TokenSink {
+        /**
+         * @param type   词法单元类型
+         * @param value  解析出的值（题型、编号、答案字母等），TEXT 时与 raw 相同
+         * @param raw    原始文本
+         * @param offset 在整个文档中的起始位置
+         */
+        void accept(TokenType type, String value, String raw, long offset);
+    }
+
+    // 各类标识的最大长度；流式解析时窗口末尾至少保留这么多字符再继续扫描
+    public static final int MAX_TOKEN_LENGTH = 32;
+
+    private static final String CHINESE_NUMERALS = "一二三四五六七八九十";
+
+    private final TokenSink sink;
+    private String value; // 最近一次匹配出的 value
+
+    public QuestionLexer(TokenSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * 扫描 [from, limit) 区间内开始的词法单元；单元本身可以越过 limit（只要字符已在 text 中）
+     * @param baseOffset text 下标 0 在整个文档中的位置
+     * @return 扫描结束的位置（≥ limit），下一次从这里继续
+     */
+    public int lex(CharSequence text, int from, int limit, long baseOffset) {
+        int textStart = from;
+        int i = from;
+        while (i < limit) {
+            boolean lineStart = i == 0 || text.charAt(i - 1) == '\n';
+            boolean wordStart = lineStart || Character.isWhitespace(text.charAt(i - 1));
+            TokenType type = null;
+            int end = -1;
+            if (lineStart && (end = matchChapter(text, i)) > 0) {
+                type = TokenType.CHAPTER;
+            } else if (lineStart && (end = matchSection(text, i)) > 0) {
+                type = TokenType.SECTION;
+            } else if (wordStart && (end = matchQuestionNumber(text, i)) > 0) {
+                type = lineStart ? TokenType.QUESTION_NUMBER : TokenType.INLINE_NUMBER;
+            } else if ((end = matchMaterial(text, i)) > 0) {
+                type = TokenType.MATERIAL;
+            } else if ((end = matchAnswer(text, i)) > 0) {
+                type = TokenType.ANSWER;
+            } else if ((end = matchSubNumber(text, i)) > 0) {
+                type = TokenType.SUB_NUMBER;
+            } else if ((end = matchOption(text, i)) > 0) {
+                type = TokenType.OPTION;
+            }
+            if (type == null) {
+                i++;
+                continue;
+            }
+            if (textStart < i) {
+                String raw = text.subSequence(textStart, i).toString();
+                sink.accept(TokenType.TEXT, raw, raw, baseOffset + textStart);
+            }
+            sink.accept(type, value, text.subSequence(i, end).toString(), baseOffset + i);
+            i = end;
+            textStart = end;
+        }
+        if (textStart < i) {
+            String raw = text.subSequence(textStart, i).toString();
+            sink.accept(TokenType.TEXT, raw, raw, baseOffset + textStart);
+        }
+        return i;
+    }
+
+    // 第X章 / 绪论
+    private int matchChapter(CharSequence text, int i) {
+        if (startsWith(text, i, "绪论")) {
+            value = "绪论";
+            return i + 2;
+        }
+        if (charAt(text, i) != '第') {
+            return -1;
+        }
+        int j = skipNumerals(text, i + 1, 3);
+        if (j == i + 1 || charAt(text, j) != '章') {
+            return -1;
+        }
+        value = text.subSequence(i, j + 1).toString();
+        return j + 1;
+    }
+
+    // 一、单项选择题：汉字序号 + 、 + 不超过 10 个字的题型名（以“题”结尾）
+    private int matchSection(CharSequence text, int i) {
+        int j = skipNumerals(text, i, 3);
+        if (j == i || charAt(text, j) != '、') {
+            return -1;
+        }
+        for (int k = j + 1; k <= j + 10; k++) {
+            char c = charAt(text, k);
+            if (c == '\n' || c == 0) {
+                return -1;
+            }
+            if (c == '题') {
+                String name = text.subSequence(j + 1, k + 1).toString();
+                if (name.contains("单项选择") || name.contains("单选")) {
+                    value = "单选题";
+                } else if (name.contains("多项选择") || name.contains("多选")) {
+                    value = "多选题";
+                } else if (name.contains("材料分析")) {
+                    value = "材料分析题";
+                } else {
+                    value = name;
+                }
+                return k + 1;
+            }
+        }
+        return -1;
+    }
+
+    // 题号：1~5 位数字 + “、”，或数字 + “.”（后面不是数字，排除小数）；合并导出的整本题库连续编号可超过 9999
+    private int matchQuestionNumber(CharSequence text, int i) {
+        int j = i;
+        while (j < i + 5 && isDigit(charAt(text, j))) {
+            j++;
+        }
+        if (j == i) {
+            return -1;
+        }
+        char c = charAt(text, j);
+        if (c == '、' || (c == '.' && !isDigit(charAt(text, j + 1)) && j + 1 < text.length())) {
+            value = text.subSequence(i, j).toString();
+            return j + 1;
+        }
+        return -1;
+    }
+
+    // 【材料N】
+    private int matchMaterial(CharSequence text, int i) {
+        if (!startsWith(text, i, "【材料")) {
+            return -1;
+        }
+        int j = i + 3;
+        while (j < i + 6 && isDigit(charAt(text, j))) {
+            j++;
+        }
+        if (j == i + 3 || charAt(text, j) != '】') {
+            return -1;
+        }
+        value = text.subSequence(i + 3, j).toString();
+        return j + 1;
+    }
+
+    // 答案括号：( A )、(AB)、(A,B,D)
+    private int matchAnswer(CharSequence text, int i) {
+        if (charAt(text, i) != '(') {
+            return -1;
+        }
+        StringBuilder letters = new StringBuilder(5);
+        for (int j = i + 1; j < i + 20; j++) {
+            char c = charAt(text, j);
+            if (c >= 'A' && c <= 'E') {
+                letters.append(c);
+            } else if (c == ')') {
+                if (letters.isEmpty()) {
+                    return -1;
+                }
+                value = letters.toString();
+                return j + 1;
+            } else if (c != ' ' && c != ',' && c != '，' && c != '、' && c != '　') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    // 材料小题号：(1)
+    private int matchSubNumber(CharSequence text, int i) {
+        if (charAt(text, i) != '(') {
+            return -1;
+        }
+        int j = i + 1;
+        while (j < i + 3 && isDigit(charAt(text, j))) {
+            j++;
+        }
+        if (j == i + 1 || charAt(text, j) != ')') {
+            return -1;
+        }
+        value = text.subSequence(i + 1, j).toString();
+        return j + 1;
+    }
+
+    // 选项标号：A、 或 A.，前面不能紧跟英文字母（题干中的“DNA.”“RNA、”等不是选项）；
+    // 前面是数字不算，选项挤在一行时常见“A.1921B.1927”
+    private int matchOption(CharSequence text, int i) {
+        char c = charAt(text, i);
+        if (c < 'A' || c > 'E') {
+            return -1;
+        }
+        if (i > 0 && isAsciiLetter(text.charAt(i - 1))) {
+            return -1;
+        }
+        char next = charAt(text, i + 1);
+        if (next != '、' && next != '.') {
+            return -1;
+        }
+        value = String.valueOf(c);
+        return i + 2;
+    }
+
+    private static int skipNumerals(CharSequence text, int i, int max) {
+        int j = i;
+        while (j < i + max && CHINESE_NUMERALS.indexOf(charAt(text, j)) >= 0) {
+            j++;
+        }
+        return j;
+    }
+
+    private static boolean startsWith(CharSequence text, int i, String prefix) {
+        if (i + prefix.length() > text.length()) {
+            return false;
+        }
+        for (int k = 0; k < prefix.length(); k++) {
+            if (text.charAt(i + k) != prefix.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    // 越界返回 0，调用方无需单独判断长度
+    private static char charAt(CharSequence text, int i) {
+        return i < text.length() ? text.charAt(i) : 0;
+    }
+}
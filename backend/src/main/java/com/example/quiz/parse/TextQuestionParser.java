@@ -0,0 +1,58 @@
+package com.example.quiz.parse;
+
+import com.example.quiz.model.Question;
+import com.example.utils.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 粘贴文本题目解析（POST /api/questions/import 使用）：格式为“1、题干(A)A.xx B.xx C.xx D.xx”，可在同一行连续书写
+ */
+public final class TextQuestionParser {
+
+    // 正则表达式匹配题目（预编译，避免每次导入重新编译）
+    private static final Pattern QUESTION_PATTERN = Pattern.compile(
+            "(\\d+)[、\\.]\\s*([^(]+?)\\s*\\(\\s*([A-Z]+)\\s*\\)\\s*A[、\\.]\\s*(.+?)\\s*B[、\\.]\\s*(.+?)\\s*C[、\\.]\\s*(.+?)\\s*D[、\\.]\\s*(.+?)(?=\\s*(?:E[、\\.]|\\d+[、\\.]|$))"
+    );
+
+    private TextQuestionParser() {
+    }
+
+    /**
+     * 从文本解析题目
+     */
+    public static List<Question> parse(String text) {
+        List<Question> questions = new ArrayList<>();
+        
+        // 预处理文本：合并空白、统一选项标号和括号（单次扫描，见 TextNormalizer.PASTED_TEXT）
+        String processedText = TextNormalizer.PASTED_TEXT.normalize(text);
+        
+        Matcher matcher = QUESTION_PATTERN.matcher(processedText);
+        
+        while (matcher.find()) {
+            try {
+                Question question = new Question();
+               
+                question.setContent(matcher.group(2).trim());
+                
+                String answer = matcher.group(3).trim();
+                question.setAnswer(answer);
+                question.setQuestionType(answer.length() == 1 ? "single_choice" : "multi_choice");
+                
+                question.setOptionA(matcher.group(4).trim());
+                question.setOptionB(matcher.group(5).trim());
+                question.setOptionC(matcher.group(6).trim());
+                question.setOptionD(matcher.group(7).trim());
+                
+                questions.add(question);
+            } catch (Exception e) {
+                System.err.println("解析题目失败: " + e.getMessage());
+            }
+        }
+        
+        return questions;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.quiz.parse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 未能识别为题目的文本区间（文档中的字符位置，左闭右开）
+ */
+@Data
+@AllArgsConstructor
+public class UnmatchedSpan {
+    private long start;
+    private long end;
+}
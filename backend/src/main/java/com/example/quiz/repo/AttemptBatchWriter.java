@@ -0,0 +1,32 @@
+package com.example.quiz.repo;
+
+import com.example.quiz.model.AnswerAttempt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * 作答记录批量写入：JdbcTemplate 批量 INSERT（配合 rewriteBatchedStatements 合并为多值 INSERT），不回填 id
+ */
+@Repository
+public class AttemptBatchWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO answer_attempt "
+            + "(question_id, user_id, choices, correct, answered_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<AnswerAttempt> attempts) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, attempts, attempts.size(), (ps, attempt) -> {
+            ps.setLong(1, attempt.getQuestionId());
+            ps.setString(2, attempt.getUserId());
+            ps.setString(3, attempt.getChoices());
+            ps.setBoolean(4, attempt.isCorrect());
+            ps.setTimestamp(5, Timestamp.valueOf(attempt.getAnsweredAt()));
+        });
+    }
+}
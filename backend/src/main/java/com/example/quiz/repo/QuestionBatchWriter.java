@@ -0,0 +1,200 @@
+package com.example.quiz.repo;
+
+import com.example.quiz.model.Question;
+import com.example.quiz.parse.BankFingerprint;
+import com.example.quiz.parse.QuestionFingerprint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+/**
+ * 题目批量写入：Question 使用 IDENTITY 主键，Hibernate 会因此关闭 JDBC 批量插入（saveAll 仍是一条一条 INSERT）。
+ * 导入场景改走 JdbcTemplate 批量插入，配合 MySQL 驱动的 rewriteBatchedStatements=true 合并为多值 INSERT，
+ * 插入后把数据库生成的 id 回填到实体上。不经过持久化上下文，大批量导入时内存不会随题目数增长。
+ */
+@Repository
+public class QuestionBatchWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO question "
+            + "(content, optiona, optionb, optionc, optiond, optione, answer, question_type, chapter, content_hash) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_WITH_ID_SQL = "INSERT INTO question "
+            + "(id, content, optiona, optionb, optionc, optiond, optione, answer, question_type, chapter, content_hash) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_WITHOUT_HASH_SQL = "SELECT id, content, optiona, optionb, optionc, optiond, optione, answer "
+            + "FROM question WHERE content_hash IS NULL ORDER BY id LIMIT ?";
+    private static final String UPDATE_HASH_SQL = "UPDATE question SET content_hash = ? WHERE id = ?";
+    private static final String SELECT_FINGERPRINT_SQL = "SELECT id, content_hash, question_type, chapter FROM question ORDER BY id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 每批发送给数据库的题目数
+    @Value("${quiz.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 批量插入题目，按 batchSize 分批提交，并回填自增 id
+     * @param questions 待插入的题目（id 应为空）
+     * @return 传入的同一个列表，id 已回填
+     */
+    public List<Question> insertAll(List<Question> questions) {
+        for (int from = 0; from < questions.size(); from += batchSize) {
+            List<Question> batch = questions.subList(from, Math.min(questions.size(), from + batchSize));
+            batch.forEach(QuestionBatchWriter::ensureContentHash);
+            insertBatch(batch);
+        }
+        return questions;
+    }
+
+    /**
+     * 按给定 id 批量插入（恢复题库快照时保留原 id，作答记录、统计、复习卡片仍能对应）
+     * @param questions id 不为空且库中不存在的题目
+     */
+    public void insertWithIds(List<Question> questions) {
+        questions.forEach(QuestionBatchWriter::ensureContentHash);
+        jdbcTemplate.batchUpdate(INSERT_WITH_ID_SQL, questions, batchSize, (ps, question) -> {
+            ps.setLong(1, question.getId());
+            ps.setString(2, question.getContent());
+            ps.setString(3, question.getOptionA());
+            ps.setString(4, question.getOptionB());
+            ps.setString(5, question.getOptionC());
+            ps.setString(6, question.getOptionD());
+            ps.setString(7, question.getOptionE());
+            ps.setString(8, question.getAnswer());
+            ps.setString(9, question.getQuestionType());
+            ps.setString(10, question.getChapter());
+            ps.setString(11, question.getContentHash());
+        });
+    }
+
+    /**
+     * 按内容指纹去重后批量插入：每批先用一条 IN 查询找出库中已有的指纹，只插入新题目，
+     * 同一次调用中重复出现的题目也只插入一次。重复导入同一份文档时不会产生重复题目。
+     * @param questions 待插入的题目（id 应为空）
+     * @return 实际插入的题目（id 已回填），不含被跳过的重复题目
+     */
+    public List<Question> insertNew(List<Question> questions) {
+        List<Question> inserted = new ArrayList<>(questions.size());
+        Set<String> seen = new HashSet<>();
+        for (int from = 0; from < questions.size(); from += batchSize) {
+            List<Question> batch = questions.subList(from, Math.min(questions.size(), from + batchSize));
+            batch.forEach(QuestionBatchWriter::ensureContentHash);
+            Set<String> existing = findExistingHashes(batch);
+            List<Question> fresh = new ArrayList<>(batch.size());
+            for (Question question : batch) {
+                if (!existing.contains(question.getContentHash()) && seen.add(question.getContentHash())) {
+                    fresh.add(question);
+                }
+            }
+            if (!fresh.isEmpty()) {
+                insertBatch(fresh);
+                inserted.addAll(fresh);
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * 为历史数据（没有内容指纹的行）补算指纹，每次处理 batchSize 行
+     * @return 补算的行数
+     */
+    public int backfillContentHashes() {
+        int total = 0;
+        while (true) {
+            List<Object[]> updates = jdbcTemplate.query(SELECT_WITHOUT_HASH_SQL, (rs, rowNum) -> {
+                Question question = new Question();
+                question.setContent(rs.getString("content"));
+                question.setOptionA(rs.getString("optiona"));
+                question.setOptionB(rs.getString("optionb"));
+                question.setOptionC(rs.getString("optionc"));
+                question.setOptionD(rs.getString("optiond"));
+                question.setOptionE(rs.getString("optione"));
+                question.setAnswer(rs.getString("answer"));
+                return new Object[]{QuestionFingerprint.of(question), rs.getLong("id")};
+            }, batchSize);
+            if (updates.isEmpty()) {
+                return total;
+            }
+            jdbcTemplate.batchUpdate(UPDATE_HASH_SQL, updates);
+            total += updates.size();
+        }
+    }
+
+    /**
+     * 计算整个题库的指纹（{@link BankFingerprint}），只读 id、content_hash、question_type、chapter 四列
+     * @return 题库指纹；存在尚未补算内容指纹的行时返回 null（无法与快照文件比较）
+     */
+    public String bankFingerprint() {
+        BankFingerprint fingerprint = new BankFingerprint();
+        boolean[] missingHash = {false};
+        jdbcTemplate.query(SELECT_FINGERPRINT_SQL, rs -> {
+            String contentHash = rs.getString("content_hash");
+            if (contentHash == null) {
+                missingHash[0] = true;
+            }
+            fingerprint.add(rs.getLong("id"), contentHash, rs.getString("question_type"), rs.getString("chapter"));
+        });
+        return missingHash[0] ? null : fingerprint.hex();
+    }
+
+    private Set<String> findExistingHashes(List<Question> batch) {
+        Set<String> hashes = new LinkedHashSet<>();
+        for (Question question : batch) {
+            hashes.add(question.getContentHash());
+        }
+        String placeholders = String.join(",", Collections.nCopies(hashes.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT content_hash FROM question WHERE content_hash IN (" + placeholders + ")",
+                String.class, hashes.toArray()));
+    }
+
+    private static void ensureContentHash(Question question) {
+        if (question.getContentHash() == null) {
+            question.setContentHash(QuestionFingerprint.of(question));
+        }
+    }
+
+    private void insertBatch(List<Question> batch) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Question question = batch.get(i);
+                        ps.setString(1, question.getContent());
+                        ps.setString(2, question.getOptionA());
+                        ps.setString(3, question.getOptionB());
+                        ps.setString(4, question.getOptionC());
+                        ps.setString(5, question.getOptionD());
+                        ps.setString(6, question.getOptionE());
+                        ps.setString(7, question.getAnswer());
+                        ps.setString(8, question.getQuestionType());
+                        ps.setString(9, question.getChapter());
+                        ps.setString(10, question.getContentHash());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < batch.size() && i < keys.size(); i++) {
+            Object key = keys.get(i).values().iterator().next();
+            batch.get(i).setId(((Number) key).longValue());
+        }
+    }
+}
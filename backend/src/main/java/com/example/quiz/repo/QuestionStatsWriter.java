@@ -0,0 +1,57 @@
+package com.example.quiz.repo;
+
+import com.example.quiz.model.QuestionStat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * 题目作答统计的读取与批量覆盖写入（INSERT ... ON DUPLICATE KEY UPDATE，一条语句完成新增或更新）
+ */
+@Repository
+public class QuestionStatsWriter {
+
+    private static final String UPSERT_SQL = "INSERT INTO question_stats "
+            + "(question_id, attempts, correct, pick_a, pick_b, pick_c, pick_d, pick_e, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE attempts = VALUES(attempts), correct = VALUES(correct), "
+            + "pick_a = VALUES(pick_a), pick_b = VALUES(pick_b), pick_c = VALUES(pick_c), "
+            + "pick_d = VALUES(pick_d), pick_e = VALUES(pick_e), updated_at = VALUES(updated_at)";
+    private static final String SELECT_SQL = "SELECT question_id, attempts, correct, "
+            + "pick_a, pick_b, pick_c, pick_d, pick_e FROM question_stats";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public List<QuestionStat> findAll() {
+        return jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> {
+            QuestionStat stat = new QuestionStat();
+            stat.setQuestionId(rs.getLong("question_id"));
+            stat.setAttempts(rs.getLong("attempts"));
+            stat.setCorrect(rs.getLong("correct"));
+            stat.setPickA(rs.getLong("pick_a"));
+            stat.setPickB(rs.getLong("pick_b"));
+            stat.setPickC(rs.getLong("pick_c"));
+            stat.setPickD(rs.getLong("pick_d"));
+            stat.setPickE(rs.getLong("pick_e"));
+            return stat;
+        });
+    }
+
+    public void upsertAll(List<QuestionStat> stats, int batchSize) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, stats, batchSize, (ps, stat) -> {
+            ps.setLong(1, stat.getQuestionId());
+            ps.setLong(2, stat.getAttempts());
+            ps.setLong(3, stat.getCorrect());
+            ps.setLong(4, stat.getPickA());
+            ps.setLong(5, stat.getPickB());
+            ps.setLong(6, stat.getPickC());
+            ps.setLong(7, stat.getPickD());
+            ps.setLong(8, stat.getPickE());
+            ps.setTimestamp(9, Timestamp.valueOf(stat.getUpdatedAt()));
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.quiz.repo;
+
+import com.example.quiz.model.ReviewCard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * 复习卡片的按用户读取、批量覆盖写入（INSERT ... ON DUPLICATE KEY UPDATE，依赖 user_id + question_id 唯一键）与批量删除
+ */
+@Repository
+public class ReviewCardWriter {
+
+    private static final String UPSERT_SQL = "INSERT INTO review_card "
+            + "(user_id, question_id, repetitions, interval_days, ease, lapses, due_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE repetitions = VALUES(repetitions), interval_days = VALUES(interval_days), "
+            + "ease = VALUES(ease), lapses = VALUES(lapses), due_at = VALUES(due_at), updated_at = VALUES(updated_at)";
+    private static final String SELECT_SQL = "SELECT question_id, repetitions, interval_days, ease, lapses, due_at "
+            + "FROM review_card WHERE user_id = ?";
+    private static final String DELETE_SQL = "DELETE FROM review_card WHERE user_id = ? AND question_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public List<ReviewCard> findByUser(String userId) {
+        return jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> {
+            ReviewCard card = new ReviewCard();
+            card.setUserId(userId);
+            card.setQuestionId(rs.getLong("question_id"));
+            card.setRepetitions(rs.getInt("repetitions"));
+            card.setIntervalDays(rs.getInt("interval_days"));
+            card.setEase(rs.getFloat("ease"));
+            card.setLapses(rs.getInt("lapses"));
+            card.setDueAt(rs.getTimestamp("due_at").toLocalDateTime());
+            return card;
+        }, userId);
+    }
+
+    public void upsertAll(List<ReviewCard> cards, int batchSize) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, cards, batchSize, (ps, card) -> {
+            ps.setString(1, card.getUserId());
+            ps.setLong(2, card.getQuestionId());
+            ps.setInt(3, card.getRepetitions());
+            ps.setInt(4, card.getIntervalDays());
+            ps.setFloat(5, card.getEase());
+            ps.setInt(6, card.getLapses());
+            ps.setTimestamp(7, Timestamp.valueOf(card.getDueAt()));
+            ps.setTimestamp(8, Timestamp.valueOf(card.getUpdatedAt()));
+        });
+    }
+
+    public void deleteAll(List<ReviewCard> cards, int batchSize) {
+        jdbcTemplate.batchUpdate(DELETE_SQL, cards, batchSize, (ps, card) -> {
+            ps.setString(1, card.getUserId());
+            ps.setLong(2, card.getQuestionId());
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.quiz.service;
+
+import com.example.quiz.model.AnswerResult;
+import com.example.quiz.model.AnswerSubmission;
+
+public interface AnswerService {
+    /**
+     * 判分并记录作答
+     * @return 判分结果；题目不存在时返回 null
+     * @throws IllegalArgumentException 作答为空或包含无效选项
+     */
+    AnswerResult submitAnswer(Long questionId, AnswerSubmission submission);
+}
@@ -0,0 +1,77 @@
+package com.example.quiz.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 导入进度：导入过程中累加已解析字符数、识别出的题数、已入库行数、已处理和失败的文件数，供任务状态查询；
+ * 任务被取消后，导入在下一个检查点（每个文本块、每批入库之前）抛出 {@link CancellationException}
+ */
+public class ImportProgress {
+
+    private final AtomicLong charsParsed = new AtomicLong();
+    private final AtomicLong questionsFound = new AtomicLong();
+    private final AtomicLong rowsSaved = new AtomicLong();
+    private final AtomicLong filesProcessed = new AtomicLong();
+    private final AtomicLong filesFailed = new AtomicLong();
+    private volatile boolean cancelled;
+
+    public void addCharsParsed(long chars) {
+        charsParsed.addAndGet(chars);
+    }
+
+    public void addQuestionsFound(long questions) {
+        questionsFound.addAndGet(questions);
+    }
+
+    public void addRowsSaved(long rows) {
+        rowsSaved.addAndGet(rows);
+    }
+
+    /**
+     * 多文件导入时每个文件结束（成功或失败）调用一次
+     */
+    public void addFileFinished(boolean success) {
+        filesProcessed.incrementAndGet();
+        if (!success) {
+            filesFailed.incrementAndGet();
+        }
+    }
+
+    public long getCharsParsed() {
+        return charsParsed.get();
+    }
+
+    public long getQuestionsFound() {
+        return questionsFound.get();
+    }
+
+    public long getRowsSaved() {
+        return rowsSaved.get();
+    }
+
+    public long getFilesProcessed() {
+        return filesProcessed.get();
+    }
+
+    public long getFilesFailed() {
+        return filesFailed.get();
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 检查点：已取消则中止导入（事务随之回滚）
+     */
+    public void checkCancelled() {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("导入已取消");
+        }
+    }
+}
@@ -5,5 +5,9 @@ import java.util.List;
 import com.example.quiz.model.Question;
 
 public interface ParseService {
+    // 解析并入库
     List<Question> parseDocument(String documentContent);
+
+    // 只解析，不入库
+    List<Question> parseQuestions(String documentContent);
 }
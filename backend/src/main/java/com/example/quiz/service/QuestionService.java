@@ -1,7 +1,12 @@
 package com.example.quiz.service;
 
 import com.example.quiz.model.Question;
+import com.example.quiz.model.QuestionPage;
+import com.example.quiz.model.QuestionWindow;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 
 public interface QuestionService {
     
@@ -41,15 +46,30 @@ public interface QuestionService {
     // 随机获取题目
     Question getRandomQuestion();
     
-    // 获取指定数量的随机题目
-    List<Question> getRandomQuestions(Integer count);
+    // 获取指定数量的随机题目（seed 相同则结果可复现，可按题型/章节筛选）
+    List<Question> getRandomQuestions(Integer count, Long seed, String questionType, String chapter);
+    
+    // 获取某题及其前 before 题、后 after 题（按 id 顺序，首尾相接），用于前端预取
+    QuestionWindow getQuestionWindow(Long id, Integer before, Integer after);
+    
+    // 按 id 批量获取题目（按传入顺序返回，不存在的 id 忽略）
+    List<Question> getQuestionsByIds(List<Long> ids);
     
     // 搜索题目
     List<Question> searchQuestions(String keyword);
     
-    // 获取所有题目（分页）
-    List<Question> getAllQuestions(Integer page, Integer size);
+    // 获取所有题目（游标分页，可按题型/章节筛选）
+    QuestionPage getQuestionPage(String cursor, Integer size, String questionType, String chapter);
+    
+    // 分面计数：各章节、各题型的题数（可按题型/章节筛选）
+    Map<String, Object> getFacets(String questionType, String chapter);
     
     // 批量导入题目
     Integer importQuestions(String textContent);
+    
+    // 批量导入题目，导入进度写入 progress，progress 被取消时中止并回滚
+    Integer importQuestions(String textContent, ImportProgress progress);
+    
+    // 流式导出所有题目（ndjson=true 每行一个 JSON 对象，否则为 JSON 数组），内存占用与题库大小无关
+    void exportAll(OutputStream out, boolean ndjson) throws IOException;
 }
\ No newline at end of file
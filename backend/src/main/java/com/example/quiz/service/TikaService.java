@@ -2,6 +2,7 @@ package com.example.quiz.service;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.function.Consumer;
 
 
 public interface TikaService {
@@ -22,6 +23,16 @@ public interface TikaService {
      */
     String extractTextFromPdf(InputStream pdfInputStream) throws Exception;
 
+    /**
+     * 流式提取 PDF 文本：每解析完一页或累计 chunkSize 个字符就回调一次，不在内存中保留整个文档（适用于大文件）
+     * @param pdfInputStream PDF 文件输入流
+     * @param chunkSize 单次回调的最大字符数
+     * @param chunkConsumer 文本分块回调
+     * @return 提取的字符总数
+     * @throws Exception 解析过程中的异常（流异常、格式错误等）
+     */
+    long extractTextFromPdf(InputStream pdfInputStream, int chunkSize, Consumer<String> chunkConsumer) throws Exception;
+
     /**
      * 验证文件是否为 PDF 格式（避免非 PDF 文件导致的解析错误）
      * @param file 待验证文件
@@ -0,0 +1,56 @@
+package com.example.quiz.service.impl;
+
+import com.example.quiz.index.AnswerKey;
+import com.example.quiz.model.AnswerAttempt;
+import com.example.quiz.model.AnswerResult;
+import com.example.quiz.model.AnswerSubmission;
+import com.example.quiz.service.AnswerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * 判分：与内存题库快照中的正确答案比较选项位掩码（单选、多选统一处理，忽略顺序），作答记录交给 AttemptRecorder 延迟批量入库，
+ * 难度统计累加到 QuestionStatsService 的内存计数器；带 userId 的作答同时更新该用户的错题复习计划（ReviewService）。
+ * 除了用户首次作答时加载其复习卡片外，请求线程上不访问数据库
+ */
+@Service
+public class AnswerServiceImpl implements AnswerService {
+
+    // 与 answer_attempt.user_id 列长度一致
+    private static final int MAX_USER_ID_LENGTH = 64;
+
+    @Autowired
+    private AnswerKey answerKey;
+
+    @Autowired
+    private AttemptRecorder attemptRecorder;
+
+    @Autowired
+    private QuestionStatsService questionStatsService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Override
+    public AnswerResult submitAnswer(Long questionId, AnswerSubmission submission) {
+        String userId = submission.getUserId();
+        if (userId != null && userId.length() > MAX_USER_ID_LENGTH) {
+            throw new IllegalArgumentException("userId 过长");
+        }
+        int chosen = AnswerKey.parseChoices(submission.getChoices());
+        Integer key = answerKey.mask(questionId);
+        if (key == null) {
+            return null;
+        }
+        boolean correct = chosen == key;
+        String choices = AnswerKey.format(chosen);
+        questionStatsService.record(questionId, chosen, correct);
+        if (userId != null && !userId.isBlank()) {
+            reviewService.record(userId, questionId, correct);
+        }
+        attemptRecorder.record(new AnswerAttempt(questionId, userId, choices, correct, LocalDateTime.now()));
+        return new AnswerResult(questionId, correct, choices, AnswerKey.format(key));
+    }
+}
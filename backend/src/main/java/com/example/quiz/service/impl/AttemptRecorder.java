@@ -0,0 +1,202 @@
+package com.example.quiz.service.impl;
+
+import com.example.quiz.model.AnswerAttempt;
+import com.example.quiz.repo.AttemptBatchWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 作答记录延迟写入：判分线程只把记录放入无锁队列（ConcurrentLinkedQueue）就返回，
+ * 定时任务每隔 quiz.attempts.flush-interval-ms 把队列中的记录按 batch-size 分批写入数据库，应用关闭前再写一次。
+ * 积压（含写入失败等待重试的记录）最多 max-pending 条，超出时丢弃新记录并计入 quiz.attempts.dropped：
+ * 数据库不可用期间内存不会无限增长，提交答案也不会因同步写库而阻塞。
+ * 写入失败的批次在之后的每一轮优先重试；连续 max-retries 轮失败后二分拆分写入，
+ * 因数据本身出错（违反约束等）而无法写入的单条记录丢弃并计入 quiz.attempts.rejected，不会卡住之后的记录。
+ */
+@Component
+public class AttemptRecorder {
+
+    private final AttemptBatchWriter attemptBatchWriter;
+    private final Queue<AnswerAttempt> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    // 同一时刻只有一个线程写库；定时任务抢不到锁直接返回，关闭时等待锁
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final int batchSize;
+    private final int maxPending;
+    private final int maxRetries;
+    private final Counter persisted;
+    private final Counter failures;
+    private final Counter dropped;
+    private final Counter rejected;
+
+    // 写入失败、等待重试的批次及已连续失败的轮数（持有 flushLock 时访问）
+    private List<AnswerAttempt> retryBatch = List.of();
+    private int retryRounds;
+
+    public AttemptRecorder(AttemptBatchWriter attemptBatchWriter, MeterRegistry registry,
+                           @Value("${quiz.attempts.batch-size:500}") int batchSize,
+                           @Value("${quiz.attempts.max-pending:50000}") int maxPending,
+                           @Value("${quiz.attempts.max-retries:5}") int maxRetries) {
+        this.attemptBatchWriter = attemptBatchWriter;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.maxRetries = maxRetries;
+        this.persisted = Counter.builder("quiz.attempts.persisted")
+                .description("写入数据库的作答记录数").register(registry);
+        this.failures = Counter.builder("quiz.attempts.flush.failures")
+                .description("作答记录批量写入失败次数").register(registry);
+        this.dropped = Counter.builder("quiz.attempts.dropped")
+                .description("积压已满而丢弃的作答记录数").register(registry);
+        this.rejected = Counter.builder("quiz.attempts.rejected")
+                .description("多次重试后因数据错误无法写入而丢弃的作答记录数").register(registry);
+        Gauge.builder("quiz.attempts.pending", pending, AtomicInteger::get)
+                .description("等待写入数据库的作答记录数").register(registry);
+    }
+
+    public void record(AnswerAttempt attempt) {
+        // pending 包含队列中、正在写入和等待重试的记录，写入失败不会使积压超过上限
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.offer(attempt);
+    }
+
+    /**
+     * 先重试上次失败的批次，再把队列中的记录分批写入数据库；同一时刻只有一个线程在写，其他线程直接返回
+     */
+    @Scheduled(fixedDelayString = "${quiz.attempts.flush-interval-ms:1000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 定时写入可能正在进行，等它释放锁后再把剩余记录写完
+        flushLock.lock();
+        try {
+            drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // 调用方需持有 flushLock
+    private void drain() {
+        if (!retryBatch.isEmpty() && !retry()) {
+            return;
+        }
+        while (true) {
+            List<AnswerAttempt> batch = new ArrayList<>(batchSize);
+            AnswerAttempt attempt;
+            while (batch.size() < batchSize && (attempt = queue.poll()) != null) {
+                batch.add(attempt);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            RuntimeException error = write(batch);
+            if (error != null) {
+                System.err.println("作答记录写入失败，" + batch.size() + " 条将在下次重试: " + error.getMessage());
+                retryBatch = batch;
+                retryRounds = 1;
+                return;
+            }
+        }
+    }
+
+    // 重试上次失败的批次，返回是否已全部处理（写入或丢弃）
+    private boolean retry() {
+        RuntimeException error = write(retryBatch);
+        if (error == null) {
+            retryBatch = List.of();
+            retryRounds = 0;
+            return true;
+        }
+        if (++retryRounds < maxRetries) {
+            System.err.println("作答记录第 " + retryRounds + " 次写入失败，" + retryBatch.size() + " 条将在下次重试: " + error.getMessage());
+            return false;
+        }
+        // 连续 maxRetries 轮失败：拆分找出写不进去的记录；数据库不可用时停止拆分，剩余记录继续等待重试
+        List<AnswerAttempt> unwritten = new ArrayList<>();
+        if (isDataError(error)) {
+            isolate(retryBatch, unwritten);
+        } else {
+            unwritten.addAll(retryBatch);
+        }
+        retryBatch = unwritten;
+        if (unwritten.isEmpty()) {
+            retryRounds = 0;
+            return true;
+        }
+        System.err.println("作答记录写入失败，" + unwritten.size() + " 条将在下次重试: " + error.getMessage());
+        return false;
+    }
+
+    // 整批已确认因数据错误失败：二分后分别写入，数据错误的单条记录丢弃；其他错误时把未写入的记录放入 unwritten 并停止
+    private boolean isolate(List<AnswerAttempt> batch, List<AnswerAttempt> unwritten) {
+        if (batch.size() == 1) {
+            rejected.increment();
+            pending.decrementAndGet();
+            System.err.println("作答记录无法写入，已丢弃: " + batch.get(0));
+            return true;
+        }
+        int mid = batch.size() / 2;
+        List<List<AnswerAttempt>> halves = List.of(batch.subList(0, mid), batch.subList(mid, batch.size()));
+        for (int i = 0; i < halves.size(); i++) {
+            RuntimeException error = write(halves.get(i));
+            if (error == null) {
+                continue;
+            }
+            // 非数据错误：这一半及之后的都未写入；递归拆分中止时这一半的剩余记录已放入 unwritten
+            int from = isDataError(error) ? i + 1 : i;
+            if (from == i || !isolate(halves.get(i), unwritten)) {
+                for (int j = from; j < halves.size(); j++) {
+                    unwritten.addAll(halves.get(j));
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 写入一批，成功返回 null；失败计数并返回异常
+    private RuntimeException write(List<AnswerAttempt> batch) {
+        try {
+            attemptBatchWriter.insertAll(batch);
+        } catch (RuntimeException e) {
+            failures.increment();
+            return e;
+        }
+        pending.addAndGet(-batch.size());
+        persisted.increment(batch.size());
+        return null;
+    }
+
+    // 由记录内容导致、重试也不会成功的错误（违反约束、数据超长、字段为空等）；连接失败、超时等不算
+    private static boolean isDataError(RuntimeException e) {
+        return e instanceof DataIntegrityViolationException || !(e instanceof DataAccessException);
+    }
+}
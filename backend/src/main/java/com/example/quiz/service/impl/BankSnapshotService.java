@@ -0,0 +1,169 @@
+package com.example.quiz.service.impl;
+
+import com.example.quiz.index.BankSnapshotFile;
+import com.example.quiz.index.QuestionChangePublisher;
+import com.example.quiz.index.QuestionStore;
+import com.example.quiz.model.Question;
+import com.example.quiz.parse.BankFingerprint;
+import com.example.quiz.repo.QuestionBatchWriter;
+import com.example.quiz.repo.QuestionRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 题库快照文件（{@link BankSnapshotFile}）的导出、导入与启动预热，只读写服务器上 quiz.snapshot.file 指定的文件
+ * （导出、导入由管理端点 BankSnapshotEndpoint 触发）。
+ * 配置了 quiz.snapshot.file 时：启动完成后先读该文件，与数据库比较题库指纹（{@link BankFingerprint}，
+ * 数据库一侧只读 id、content_hash、题型、章节四个短列），一致则装入内存题库（全文、筛选索引随之重建），不再全量查询；
+ * 数据库为空时把文件中的题库写入数据库（新环境直接从文件恢复）；不一致时改为从数据库加载。
+ * 应用关闭前把当前题库写回该文件，供下次启动使用。
+ */
+@Service
+public class BankSnapshotService {
+
+    @Autowired
+    private QuestionStore questionStore;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuestionBatchWriter questionBatchWriter;
+
+    @Autowired
+    private QuestionChangePublisher questionChangePublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // 预热与关闭时写回的快照文件，为空表示不启用
+    @Value("${quiz.snapshot.file:}")
+    private String snapshotFile;
+
+    /**
+     * 把当前内存题库写入快照文件（先写临时文件再原子替换）
+     * @return 写入的题目数
+     * @throws IllegalStateException 未配置 quiz.snapshot.file
+     */
+    public int exportToFile() throws IOException {
+        List<Question> questions = questionStore.current().all();
+        BankSnapshotFile.write(questions, requireFile());
+        return questions.size();
+    }
+
+    /**
+     * 用快照文件替换整个题库（保留题目 id）；文件校验通过后才修改数据库
+     * @return 导入的题目数
+     * @throws IOException 文件不存在、不是快照文件、版本不支持或已损坏
+     * @throws IllegalStateException 未配置 quiz.snapshot.file
+     */
+    public int importFromFile() throws IOException {
+        List<Question> questions = BankSnapshotFile.open(requireFile()).readAll();
+        replaceBank(questions);
+        return questions.size();
+    }
+
+    /**
+     * 快照文件信息：路径、是否存在、大小、生成时间和题目数；文件无法读取时给出原因
+     */
+    public Map<String, Object> fileInfo() {
+        Path path = configuredFile();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("file", path == null ? null : path.toString());
+        result.put("exists", path != null && Files.isRegularFile(path));
+        if (path != null && Files.isRegularFile(path)) {
+            try {
+                BankSnapshotFile file = BankSnapshotFile.open(path);
+                result.put("bytes", Files.size(path));
+                result.put("createdAt", file.createdAt());
+                result.put("questions", file.size());
+            } catch (IOException e) {
+                result.put("error", e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE) // 先于 QuestionStore 的预加载，命中文件时就不再全量查库
+    public void warmStart() {
+        Path path = configuredFile();
+        if (path == null || !Files.isRegularFile(path)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            BankSnapshotFile file = BankSnapshotFile.open(path);
+            List<Question> questions = file.readAll();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            long dbCount = questionRepository.count();
+            if (dbCount == 0 && !questions.isEmpty()) {
+                replaceBank(questions);
+                System.out.println("数据库为空，已从快照文件恢复 " + questions.size() + " 道题: " + path);
+                return;
+            }
+            String dbFingerprint = questionBatchWriter.bankFingerprint();
+            BankFingerprint fileFingerprint = new BankFingerprint();
+            questions.forEach(fileFingerprint::add);
+            if (dbFingerprint != null && dbFingerprint.equals(fileFingerprint.hex())) {
+                questionStore.install(questions, millis);
+                System.out.println("已从快照文件预热 " + questions.size() + " 道题，耗时 " + millis + " ms: " + path);
+            } else {
+                System.out.println("快照文件与数据库不一致（文件 " + questions.size() + " 题，数据库 " + dbCount
+                        + " 题" + (dbFingerprint == null ? "，部分题目尚无内容指纹" : "") + "），改为从数据库加载");
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("从快照文件预热失败，改为从数据库加载: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void saveOnShutdown() {
+        Path path = configuredFile();
+        if (path == null || !questionStore.isLoaded()) {
+            return;
+        }
+        try {
+            BankSnapshotFile.write(questionStore.current().all(), path);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("写入题库快照文件失败: " + e.getMessage());
+        }
+    }
+
+    // 同一事务内清空并按原 id 写入，提交后通知各内存索引整体重建
+    private void replaceBank(List<Question> questions) {
+        transactionTemplate.executeWithoutResult(status -> {
+            questionRepository.deleteAllInBatch();
+            questionChangePublisher.cleared();
+            questionBatchWriter.insertWithIds(questions);
+            questionChangePublisher.saved(questions);
+        });
+    }
+
+    private Path requireFile() {
+        Path path = configuredFile();
+        if (path == null) {
+            throw new IllegalStateException("未配置 quiz.snapshot.file");
+        }
+        return path;
+    }
+
+    private Path configuredFile() {
+        return snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile.trim());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.quiz.service.impl;
+
+import com.example.quiz.repo.QuestionBatchWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 启动后为加入内容指纹之前导入的题目补算指纹，否则这些题目在重复导入时无法被识别为重复
+ */
+@Component
+@RequiredArgsConstructor
+public class ContentHashBackfill {
+
+    private final QuestionBatchWriter questionBatchWriter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int updated = questionBatchWriter.backfillContentHashes();
+        if (updated > 0) {
+            System.out.println("已为 " + updated + " 道历史题目补算内容指纹");
+        }
+    }
+}
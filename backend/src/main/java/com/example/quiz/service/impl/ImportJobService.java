@@ -0,0 +1,216 @@
+package com.example.quiz.service.impl;
+
+import com.example.quiz.model.ImportJob;
+import com.example.quiz.model.ImportJob.State;
+import com.example.quiz.service.ImportProgress;
+import com.example.quiz.service.QuestionService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步导入任务：提交后立即返回任务 id，导入在专用线程池中执行（不占用 Tomcat 线程），
+ * 同时运行的导入数和排队数都有上限，避免大批量导入拖慢刷题接口。
+ * PDF 导入只能读取 quiz.import.pdf-dir 目录下的文件，请求中的路径都相对该目录解析。
+ */
+@Service
+public class ImportJobService {
+
+    // 已结束的任务保留多久（毫秒），之后从内存中移除
+    private static final long FINISHED_RETENTION_MILLIS = 60 * 60 * 1000L;
+
+    private final QuestionService questionService;
+    private final PdfQuestionImportService pdfQuestionImportService;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // PDF 导入目录，null 表示未配置（不允许导入服务器上的 PDF）
+    private final Path pdfRoot;
+
+    public ImportJobService(QuestionService questionService,
+                            PdfQuestionImportService pdfQuestionImportService,
+                            @Value("${quiz.import.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                            @Value("${quiz.import.max-queued-jobs:20}") int maxQueuedJobs,
+                            @Value("${quiz.import.pdf-dir:}") String pdfDir) {
+        this.questionService = questionService;
+        this.pdfQuestionImportService = pdfQuestionImportService;
+        this.pdfRoot = pdfDir == null || pdfDir.isBlank() ? null : Path.of(pdfDir.trim()).toAbsolutePath().normalize();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedJobs),
+                runnable -> new Thread(runnable, "import-job-" + threadNumber.incrementAndGet()));
+    }
+
+    /**
+     * 提交文本导入任务
+     * @throws RejectedExecutionException 排队任务已满
+     */
+    public ImportJob submitText(String content) {
+        return submit("text", progress -> questionService.importQuestions(content, progress));
+    }
+
+    /**
+     * 提交 PDF 目录导入任务
+     * @param directory 相对 quiz.import.pdf-dir 的子目录，空串表示导入目录本身
+     * @throws IllegalArgumentException 未配置导入目录或路径超出导入目录
+     */
+    public ImportJob submitPdfDirectory(String directory) {
+        String resolved = resolvePdfPath(directory);
+        return submit("pdf", progress -> pdfQuestionImportService.importQuestionsFromDirectory(resolved, progress));
+    }
+
+    /**
+     * 提交多个 PDF 文件的导入任务
+     * @param paths 相对 quiz.import.pdf-dir 的文件路径
+     * @throws IllegalArgumentException 未配置导入目录或路径超出导入目录
+     */
+    public ImportJob submitPdfs(List<String> paths) {
+        List<String> resolved = paths.stream().map(this::resolvePdfPath).toList();
+        return submit("pdf", progress -> pdfQuestionImportService.importQuestionsFromPdfs(resolved, progress));
+    }
+
+    /**
+     * 查询任务状态，任务不存在（或已过期移除）时返回 null
+     */
+    public ImportJob getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? job.snapshot() : null;
+    }
+
+    /**
+     * 取消任务：排队中的直接取消；运行中的在下一个检查点中止并回滚未提交的数据
+     */
+    public ImportJob cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        job.progress.cancel();
+        synchronized (job) {
+            if (job.state == State.QUEUED) {
+                job.future.cancel(false);
+                job.finish(State.CANCELLED, null, null);
+            }
+        }
+        return job.snapshot();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(job -> job.progress.cancel());
+        executor.shutdown();
+    }
+
+    private ImportJob submit(String type, ImportTask task) {
+        evictFinished();
+        Job job = new Job(UUID.randomUUID().toString(), type);
+        jobs.put(job.id, job);
+        try {
+            synchronized (job) {
+                job.future = executor.submit(() -> run(job, task));
+            }
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new RejectedExecutionException("导入任务过多，请稍后再试", e);
+        }
+        return job.snapshot();
+    }
+
+    private void run(Job job, ImportTask task) {
+        synchronized (job) {
+            if (job.state != State.QUEUED) {
+                return;
+            }
+            job.state = State.RUNNING;
+            job.startedAt = System.currentTimeMillis();
+        }
+        try {
+            Object result = task.run(job.progress);
+            job.finish(job.progress.isCancelled() ? State.CANCELLED : State.SUCCEEDED, result, null);
+        } catch (CancellationException e) {
+            job.finish(State.CANCELLED, null, e.getMessage());
+        } catch (Exception e) {
+            job.finish(job.progress.isCancelled() ? State.CANCELLED : State.FAILED, null, e.getMessage());
+        }
+    }
+
+    // 相对导入目录解析；规范化后或解析符号链接后落在导入目录之外（../、绝对路径等）的一律拒绝
+    private String resolvePdfPath(String name) {
+        if (pdfRoot == null) {
+            throw new IllegalArgumentException("未配置 quiz.import.pdf-dir，不能导入服务器上的 PDF");
+        }
+        Path resolved = pdfRoot.resolve(name).normalize();
+        if (!resolved.startsWith(pdfRoot)) {
+            throw new IllegalArgumentException("路径超出导入目录: " + name);
+        }
+        try {
+            Path real = resolved.toRealPath();
+            if (!real.startsWith(pdfRoot.toRealPath())) {
+                throw new IllegalArgumentException("路径超出导入目录: " + name);
+            }
+            return real.toString();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("文件或目录不存在: " + name);
+        }
+    }
+
+    private void evictFinished() {
+        long expireBefore = System.currentTimeMillis() - FINISHED_RETENTION_MILLIS;
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt < expireBefore);
+    }
+
+    @FunctionalInterface
+    private interface ImportTask {
+        Object run(ImportProgress progress) throws Exception;
+    }
+
+    private static final class Job {
+        private final String id;
+        private final String type;
+        private final ImportProgress progress = new ImportProgress();
+        private final long submittedAt = System.currentTimeMillis();
+        private Future<?> future;
+        private volatile State state = State.QUEUED;
+        private volatile Long startedAt;
+        private volatile Long finishedAt;
+        private volatile Object result;
+        private volatile String error;
+
+        private Job(String id, String type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        private synchronized void finish(State finalState, Object result, String error) {
+            this.state = finalState;
+            this.result = result;
+            this.error = error;
+            this.finishedAt = System.currentTimeMillis();
+        }
+
+        private ImportJob snapshot() {
+            ImportJob snapshot = new ImportJob();
+            snapshot.setJobId(id);
+            snapshot.setType(type);
+            snapshot.setState(state);
+            snapshot.setCharsParsed(progress.getCharsParsed());
+            snapshot.setQuestionsFound(progress.getQuestionsFound());
+            snapshot.setRowsSaved(progress.getRowsSaved());
+            snapshot.setFilesProcessed(progress.getFilesProcessed());
+            snapshot.setFilesFailed(progress.getFilesFailed());
+            snapshot.setError(error);
+            snapshot.setSubmittedAt(submittedAt);
+            snapshot.setStartedAt(startedAt);
+            snapshot.setFinishedAt(finishedAt);
+            snapshot.setResult(result);
+            return snapshot;
+        }
+    }
+}
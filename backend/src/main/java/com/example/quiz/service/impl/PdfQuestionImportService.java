@@ -1,13 +1,36 @@
 package com.example.quiz.service.impl;
 
+import com.example.quiz.index.QuestionChangePublisher;
+import com.example.quiz.metrics.ImportMetrics;
+import com.example.quiz.metrics.ImportMetrics.Stage;
+import com.example.quiz.metrics.ImportMetrics.StageClock;
+import com.example.quiz.model.BatchImportReport;
+import com.example.quiz.model.FileImportResult;
 import com.example.quiz.model.Question;
+import com.example.quiz.parse.IncrementalQuestionParser;
+import com.example.quiz.repo.QuestionBatchWriter;
 import com.example.quiz.repo.QuestionRepository;
+import com.example.quiz.service.ImportProgress;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * PDF 题目导入服务：读取本地 PDF → 解析题目 → 存入数据库
@@ -16,12 +39,29 @@ import java.util.List;
 @RequiredArgsConstructor // Lombok 注入依赖（无需手动写 @Autowired）
 public class PdfQuestionImportService {
 
+    // 每次从 Tika 取出的文本块大小（字符）
+    private static final int CHUNK_SIZE = 8 * 1024;
+    // 单个未闭合题块的最大长度（字符），决定解析时的内存上限
+    private static final int MAX_WINDOW = 64 * 1024;
+    // 指标 source 标签
+    private static final String METRICS_SOURCE = "pdf";
+
     private final TikaServiceImpl tikaServiceImpl; // PDF 文本提取服务
-    private final ParseServiceImpl parseServiceImpl; // 题目解析服务
     private final QuestionRepository questionRepository; // JPA 数据库操作接口
+    private final QuestionBatchWriter questionBatchWriter; // JDBC 批量插入
+    private final QuestionChangePublisher questionChangePublisher; // 通知内存索引同步
+    private final TransactionTemplate transactionTemplate; // 批量导入时每个文件单独一个事务
+    private final ImportMetrics importMetrics; // 各阶段耗时、题数等指标
+
+    // 每攒够多少道题写一次数据库
+    @Value("${quiz.import.batch-size:500}")
+    private int saveBatchSize;
+
+    // PDF 解析是 CPU 密集型，同时解析的文件数不超过 CPU 核数
+    private final Semaphore parsePermits = new Semaphore(Runtime.getRuntime().availableProcessors());
 
     /**
-     * 从本地 PDF 文件导入题目并存入数据库
+     * 从本地 PDF 文件导入题目并存入数据库（流式：边提取边解析边入库，不在内存中保留整个文档）
      * @param pdfFilePath 本地 PDF 文件绝对路径（如 "D:/Quiz/题目文档.pdf"）
      * @param clearBeforeImport 是否在导入前清空现有题目（true=清空，false=追加）
      * @return 导入的题目数量
@@ -29,39 +69,217 @@ public class PdfQuestionImportService {
      */
     @Transactional // 事务管理：要么全部导入成功，要么全部回滚
     public int importQuestionsFromLocalPdf(String pdfFilePath, boolean clearBeforeImport) throws Exception {
-        // 1. 验证 PDF 文件存在
+        // 1. 验证 PDF 文件存在且为 PDF 格式
+        File pdfFile = validatePdf(pdfFilePath);
+
+        // 2. 可选：导入前清空现有题目（根据需求选择）
+        if (clearBeforeImport) {
+            questionRepository.deleteAllInBatch(); // 单条 DELETE 语句，不逐行加载删除
+            questionChangePublisher.cleared();
+            System.out.println("已清空数据库中所有现有题目");
+        }
+
+        // 3. 流式提取文本 → 增量解析 → 分批存入数据库
+        StageClock clock = importMetrics.startClock(METRICS_SOURCE);
+        boolean success = false;
+        try {
+            List<Question> batch = new ArrayList<>(saveBatchSize);
+            int[] savedCount = {0};
+            ImportProgress progress = new ImportProgress();
+            IncrementalQuestionParser parser = parsePdf(pdfFile, question -> {
+                batch.add(question);
+                if (batch.size() >= saveBatchSize) {
+                    savedCount[0] += saveBatch(batch, clock, progress);
+                }
+            }, clock, progress);
+            savedCount[0] += saveBatch(batch, clock, progress);
+
+            if (parser.getQuestionsFound() == 0) {
+                throw new RuntimeException("未从 PDF 中解析到题目！请检查题目格式是否正确（第X题、选项A-D、(答案)）");
+            }
+
+            System.out.println("PDF 题目导入成功！共导入 " + savedCount[0] + " 道题目，跳过重复题目 "
+                    + (parser.getQuestionsFound() - savedCount[0]) + " 道，未识别字符 " + parser.getUnmatchedChars() + " 个");
+            success = true;
+            return savedCount[0];
+        } finally {
+            clock.stop();
+            importMetrics.recordResult(METRICS_SOURCE, success);
+        }
+    }
+
+    /**
+     * 导入目录下的所有 PDF 文件（不递归子目录）
+     * @param directory 本地目录绝对路径
+     * @return 批量导入报告
+     * @throws IOException 目录不存在或无法读取
+     */
+    public BatchImportReport importQuestionsFromDirectory(String directory) throws IOException {
+        return importQuestionsFromDirectory(directory, new ImportProgress());
+    }
+
+    /**
+     * 导入目录下的所有 PDF 文件，进度写入 progress
+     */
+    public BatchImportReport importQuestionsFromDirectory(String directory, ImportProgress progress) throws IOException {
+        Path dir = Path.of(directory);
+        if (!Files.isDirectory(dir)) {
+            throw new IllegalArgumentException("目录不存在！路径：" + directory);
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            List<String> pdfPaths = files
+                    .filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().toLowerCase().endsWith(".pdf"))
+                    .map(Path::toString)
+                    .sorted()
+                    .toList();
+            return importQuestionsFromPdfs(pdfPaths, progress);
+        }
+    }
+
+    /**
+     * 并行导入多个 PDF 文件：每个文件一个虚拟线程，解析阶段受 CPU 核数限制，
+     * 每个文件在各自的事务中入库，单个文件失败不会回滚其他文件；
+     * 进度和失败文件数写入 ImportProgress，失败原因在报告中逐个文件给出，耗时和结果计入 ImportMetrics
+     * @param pdfFilePaths 本地 PDF 文件绝对路径列表
+     * @return 批量导入报告（每个文件的题目数、耗时、失败原因）
+     */
+    public BatchImportReport importQuestionsFromPdfs(List<String> pdfFilePaths) {
+        return importQuestionsFromPdfs(pdfFilePaths, new ImportProgress());
+    }
+
+    /**
+     * 并行导入多个 PDF 文件，进度写入 progress；progress 被取消后，未完成的文件在下一个文本块处中止并回滚
+     */
+    public BatchImportReport importQuestionsFromPdfs(List<String> pdfFilePaths, ImportProgress progress) {
+        long start = System.currentTimeMillis();
+        List<FileImportResult> results = new ArrayList<>(pdfFilePaths.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<FileImportResult>> futures = new ArrayList<>(pdfFilePaths.size());
+            for (String path : pdfFilePaths) {
+                futures.add(executor.submit(() -> importSingleFile(path, progress)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (Exception e) {
+                    FileImportResult failed = new FileImportResult();
+                    failed.setFile(pdfFilePaths.get(i));
+                    failed.setError(e.getMessage());
+                    results.add(failed);
+                }
+            }
+        }
+
+        BatchImportReport report = new BatchImportReport();
+        report.setFiles(results);
+        report.setTotalImported(results.stream().mapToInt(FileImportResult::getImportedCount).sum());
+        report.setFailedFiles((int) results.stream().filter(result -> !result.isSuccess()).count());
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        return report;
+    }
+
+    private FileImportResult importSingleFile(String pdfFilePath, ImportProgress progress) {
+        FileImportResult result = new FileImportResult();
+        result.setFile(pdfFilePath);
+        StageClock clock = importMetrics.startClock(METRICS_SOURCE);
+        try {
+            File pdfFile = validatePdf(pdfFilePath);
+
+            // 解析阶段：占用一个 CPU 许可
+            List<Question> questions = new ArrayList<>();
+            IncrementalQuestionParser parser;
+            progress.checkCancelled();
+            parsePermits.acquire();
+            long parseStart = System.currentTimeMillis();
+            try {
+                parser = parsePdf(pdfFile, questions::add, clock, progress);
+            } finally {
+                parsePermits.release();
+            }
+            result.setParseMillis(System.currentTimeMillis() - parseStart);
+            result.setUnmatchedChars(parser.getUnmatchedChars());
+            if (questions.isEmpty()) {
+                throw new RuntimeException("未从 PDF 中解析到题目！");
+            }
+
+            // 入库阶段：每个文件独立事务，已存在的题目跳过
+            long saveStart = System.currentTimeMillis();
+            int found = questions.size();
+            Integer saved = transactionTemplate.execute(status -> saveBatch(questions, clock, progress));
+            result.setSaveMillis(System.currentTimeMillis() - saveStart);
+            result.setImportedCount(saved != null ? saved : 0);
+            result.setDuplicateCount(found - result.getImportedCount());
+            result.setSuccess(true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.setError("导入被中断");
+        } catch (Exception e) {
+            result.setError(e.getMessage());
+        } finally {
+            clock.stop();
+            importMetrics.recordResult(METRICS_SOURCE, result.isSuccess());
+            progress.addFileFinished(result.isSuccess());
+        }
+        return result;
+    }
+
+    private File validatePdf(String pdfFilePath) throws Exception {
         File pdfFile = new File(pdfFilePath);
         if (!pdfFile.exists()) {
             throw new IllegalArgumentException("PDF 文件不存在！路径：" + pdfFilePath);
         }
-
-        // 2. 验证是否为 PDF 格式
         if (!tikaServiceImpl.isPdfFile(pdfFile)) {
             throw new IllegalArgumentException("文件不是 PDF 格式！路径：" + pdfFilePath);
         }
+        return pdfFile;
+    }
 
-        // 3. 提取 PDF 中的纯文本
-        String pdfText = tikaServiceImpl.extractTextFromPdf(pdfFile);
-        if (pdfText.isEmpty()) {
-            throw new RuntimeException("PDF 文件中未提取到文本内容！");
+    // 流式提取 + 增量解析，每解析出一道题回调一次；提取、预处理、解析的耗时分别计入 clock，字符数、题数计入 progress
+    private IncrementalQuestionParser parsePdf(File pdfFile, Consumer<Question> sink, StageClock clock,
+                                               ImportProgress progress) throws Exception {
+        IncrementalQuestionParser parser = new IncrementalQuestionParser(question -> {
+            progress.addQuestionsFound(1);
+            sink.accept(question);
+        }, MAX_WINDOW);
+        importMetrics.recordBytes(METRICS_SOURCE, pdfFile.length());
+        long extractedChars;
+        clock.enter(Stage.EXTRACT);
+        try (BufferedInputStream inputStream = new BufferedInputStream(new FileInputStream(pdfFile))) {
+            extractedChars = tikaServiceImpl.extractTextFromPdf(inputStream, CHUNK_SIZE, chunk -> {
+                progress.checkCancelled();
+                Stage previous = clock.enter(Stage.PARSE);
+                parser.feed(chunk);
+                clock.enter(previous);
+                progress.addCharsParsed(chunk.length());
+            });
         }
-
-        // 4. 解析文本为 Question 列表
-        List<Question> questionList = parseServiceImpl.parseDocument(pdfText);
-        if (questionList.isEmpty()) {
-            throw new RuntimeException("未从 PDF 中解析到题目！请检查题目格式是否正确（第X题、选项A-D、(答案)）");
+        clock.enter(Stage.PARSE);
+        parser.finish();
+        clock.enter(null);
+        // 预处理在增量解析器内部逐字符完成，单独计时后从解析阶段中扣出
+        clock.reassign(Stage.PARSE, Stage.PREPROCESS, parser.getNormalizeNanos());
+        importMetrics.recordParsed(METRICS_SOURCE, extractedChars, parser.getQuestionsFound(), parser.getUnmatchedChars());
+        if (extractedChars == 0) {
+            throw new RuntimeException("PDF 文件中未提取到文本内容！");
         }
+        return parser;
+    }
 
-        // 5. 可选：导入前清空现有题目（根据需求选择）
-        if (clearBeforeImport) {
-            questionRepository.deleteAll();
-            System.out.println("已清空数据库中所有现有题目");
+    private int saveBatch(List<Question> batch, StageClock clock, ImportProgress progress) {
+        if (batch.isEmpty()) {
+            return 0;
         }
-
-        // 6. 批量存入数据库（效率高于单条插入）
-        List<Question> savedQuestions = questionRepository.saveAll(questionList);
-        System.out.println("PDF 题目导入成功！共导入 " + savedQuestions.size() + " 道题目");
-
+        progress.checkCancelled();
+        Stage previous = clock.enter(Stage.PERSIST);
+        // 按内容指纹去重，重复导入同一份 PDF 只插入新题目
+        List<Question> savedQuestions = questionBatchWriter.insertNew(new ArrayList<>(batch));
+        questionChangePublisher.saved(savedQuestions);
+        clock.enter(previous);
+        importMetrics.recordPersisted(METRICS_SOURCE, savedQuestions.size());
+        importMetrics.recordDuplicates(METRICS_SOURCE, batch.size() - savedQuestions.size());
+        batch.clear();
+        progress.addRowsSaved(savedQuestions.size());
         return savedQuestions.size();
     }
-}
\ No newline at end of file
+}
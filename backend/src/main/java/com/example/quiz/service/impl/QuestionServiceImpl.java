@@ -1,97 +1,115 @@
 package com.example.quiz.service.impl;
 
+import com.example.quiz.index.QuestionChangePublisher;
+import com.example.quiz.index.QuestionFacetIndex;
+import com.example.quiz.index.QuestionSearchIndex;
+import com.example.quiz.index.QuestionSnapshot;
+import com.example.quiz.index.QuestionStore;
+import com.example.quiz.index.RandomSampler;
+import com.example.quiz.metrics.ImportMetrics;
+import com.example.quiz.metrics.ImportMetrics.Stage;
+import com.example.quiz.metrics.ImportMetrics.StageClock;
 import com.example.quiz.model.Question;
+import com.example.quiz.model.QuestionPage;
+import com.example.quiz.model.QuestionWindow;
+import com.example.quiz.parse.TextQuestionParser;
+import com.example.quiz.repo.QuestionBatchWriter;
 import com.example.quiz.repo.QuestionRepository;
+import com.example.quiz.service.ImportProgress;
 import com.example.quiz.service.QuestionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class QuestionServiceImpl implements QuestionService {
+
+    // 单页最大条数，防止一次请求拉取过多数据
+    private static final int MAX_PAGE_SIZE = 200;
+    // 题目窗口单侧最多题数
+    private static final int MAX_WINDOW_SIDE = 50;
+    // 流式导出时每写多少道题刷新一次输出
+    private static final int EXPORT_FLUSH_EVERY = 100;
     
     @Autowired
     private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuestionBatchWriter questionBatchWriter;
+
+    @Autowired
+    private QuestionSearchIndex questionSearchIndex;
+
+    @Autowired
+    private QuestionFacetIndex questionFacetIndex;
+
+    @Autowired
+    private QuestionStore questionStore;
+
+    @Autowired
+    private QuestionChangePublisher questionChangePublisher;
+
+    @Autowired
+    private ImportMetrics importMetrics;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 导入时每批写入数据库的题目数
+    @Value("${quiz.import.batch-size:500}")
+    private int importBatchSize;
     
+    // 读操作都只访问内存题库快照（QuestionStore），不查数据库
     @Override
     public Long getTotalCount() {
-        return questionRepository.count();
+        return (long) questionStore.current().size();
     }
     
     @Override
     public Question getQuestionById(Integer id) {
-        if (id == null || id <= 0) {
-            return getFirstQuestion();
-        }
-        
-        Optional<Question> question = questionRepository.findById(id);
-        return question.orElse(getFirstQuestion());
+        QuestionSnapshot snapshot = questionStore.current();
+        // 题目不存在时退回第一题
+        Question question = id == null || id <= 0 ? null : snapshot.get(id);
+        return question != null ? question : snapshot.first();
     }
     
     @Override
     public Question getNextQuestion(Integer currentId) {
-        if (currentId == null) {
-            return getFirstQuestion();
-        }
-        
-        // 获取所有题目ID并按顺序排序
-        List<Question> allQuestions = questionRepository.findAll();
-        allQuestions.sort(Comparator.comparing(Question::getId));
-        
-        for (int i = 0; i < allQuestions.size(); i++) {
-            if (allQuestions.get(i).getId().equals(currentId) && i + 1 < allQuestions.size()) {
-                return allQuestions.get(i + 1);
-            }
-        }
-        
-        // 如果是最后一题，返回第一题
-        return getFirstQuestion();
+        QuestionSnapshot snapshot = questionStore.current();
+        // 二分查找下一题（最后一题的下一题回到第一题）
+        return currentId == null ? snapshot.first() : snapshot.next(currentId);
     }
     
     @Override
     public Question getPreviousQuestion(Integer currentId) {
-        if (currentId == null) {
-            return getFirstQuestion();
-        }
-        
-        // 获取所有题目ID并按顺序排序
-        List<Question> allQuestions = questionRepository.findAll();
-        allQuestions.sort(Comparator.comparing(Question::getId));
-        
-        for (int i = 0; i < allQuestions.size(); i++) {
-            if (allQuestions.get(i).getId().equals(currentId) && i > 0) {
-                return allQuestions.get(i - 1);
-            }
-        }
-        
-        // 如果是第一题，返回最后一题
-        return getLastQuestion();
+        QuestionSnapshot snapshot = questionStore.current();
+        // 二分查找上一题（第一题的上一题回到最后一题）
+        return currentId == null ? snapshot.first() : snapshot.previous(currentId);
     }
     
     @Override
     public Question getFirstQuestion() {
-        List<Question> allQuestions = questionRepository.findAll();
-        if (allQuestions.isEmpty()) {
-            return null;
-        }
-        
-        allQuestions.sort(Comparator.comparing(Question::getId));
-        return allQuestions.get(0);
+        return questionStore.current().first();
     }
     
     @Override
     public Question getLastQuestion() {
-        List<Question> allQuestions = questionRepository.findAll();
-        if (allQuestions.isEmpty()) {
-            return null;
-        }
-        
-        allQuestions.sort(Comparator.comparing(Question::getId));
-        return allQuestions.get(allQuestions.size() - 1);
+        return questionStore.current().last();
     }
     
     @Override
@@ -101,13 +119,18 @@ public class QuestionServiceImpl implements QuestionService {
             throw new IllegalArgumentException("题目不能为空");
         }
         
-        return questionRepository.save(question);
+        Question savedQuestion = questionRepository.save(question);
+        questionChangePublisher.saved(savedQuestion);
+        return savedQuestion;
     }
     
     @Override
     @Transactional
     public List<Question> addQuestions(List<Question> questions) {
-        return questionRepository.saveAll(questions);
+        // JDBC 批量插入（IDENTITY 主键下 saveAll 无法批量）
+        List<Question> savedQuestions = questionBatchWriter.insertAll(questions);
+        questionChangePublisher.saved(savedQuestions);
+        return savedQuestions;
     }
     
     @Override
@@ -146,140 +169,235 @@ public class QuestionServiceImpl implements QuestionService {
             existingQuestion.setOptionE(question.getOptionE());
         }
       
-        return questionRepository.save(existingQuestion);
+        Question savedQuestion = questionRepository.save(existingQuestion);
+        questionChangePublisher.saved(savedQuestion);
+        return savedQuestion;
     }
     
     @Override
     @Transactional
     public void deleteQuestion(Integer id) {
         questionRepository.deleteById(id);
+        questionChangePublisher.deleted(List.of(id.longValue()));
     }
     
     @Override
     public List<Question> getQuestionsByType(String type) {
-        return questionRepository.findByQuestionType(type);
+        return questionStore.current().byType(type);
     }
     
     @Override
     public Question getRandomQuestion() {
-        List<Question> allQuestions = questionRepository.findAll();
-        if (allQuestions.isEmpty()) {
+        QuestionSnapshot snapshot = questionStore.current();
+        if (snapshot.size() == 0) {
             return null;
         }
-        
-        Random random = new Random();
-        return allQuestions.get(random.nextInt(allQuestions.size()));
+        return snapshot.at(ThreadLocalRandom.current().nextInt(snapshot.size()));
     }
     
     @Override
-    public List<Question> getRandomQuestions(Integer count) {
-        List<Question> allQuestions = questionRepository.findAll();
-        if (allQuestions.isEmpty()) {
-            return Collections.emptyList();
+    public List<Question> getRandomQuestions(Integer count, Long seed, String questionType, String chapter) {
+        String type = blankToNull(questionType);
+        String chap = blankToNull(chapter);
+        QuestionSnapshot snapshot = questionStore.current();
+        int k = count == null ? 0 : count;
+        Random random = seed != null ? new Random(seed) : ThreadLocalRandom.current();
+        List<Long> sampledIds = new ArrayList<>();
+        if (type == null && chap == null) {
+            // 无筛选条件直接按下标从快照的 id 数组中抽取
+            long[] ids = snapshot.ids();
+            for (int index : RandomSampler.sample(ids.length, k <= 0 ? ids.length : k, random)) {
+                sampledIds.add(ids[index]);
+            }
+        } else {
+            // 有筛选条件时在章节/题型位图的交集上按名次抽取，不展开候选 id
+            for (long id : questionFacetIndex.sample(type, chap, k, random)) {
+                sampledIds.add(id);
+            }
+        }
+        return findOrdered(snapshot, sampledIds);
+    }
+    
+    @Override
+    public QuestionWindow getQuestionWindow(Long id, Integer before, Integer after) {
+        QuestionSnapshot snapshot = questionStore.current();
+        long[] ids = snapshot.ids();
+        int n = ids.length;
+        if (n == 0) {
+            return new QuestionWindow(Collections.emptyList(), null, false, 0);
         }
         
-        if (count == null || count <= 0 || count >= allQuestions.size()) {
-            return allQuestions;
+        // 定位当前题；id 不存在时取其后的第一题（超过末题则回到第一题）
+        int center = id == null ? 0 : Arrays.binarySearch(ids, id);
+        if (center < 0) {
+            center = (-center - 1) % n;
         }
+        // 两侧题数之和不超过 n - 1，避免绕回后出现重复题目
+        int prev = Math.min(clampSide(before), n - 1);
+        int next = Math.min(clampSide(after), n - 1 - prev);
+        boolean wraps = center - prev < 0 || center + next >= n;
         
-        Collections.shuffle(allQuestions);
-        return allQuestions.subList(0, count);
+        List<Question> items = new ArrayList<>(prev + next + 1);
+        for (int offset = -prev; offset <= next; offset++) {
+            items.add(snapshot.at(Math.floorMod(center + offset, n)));
+        }
+        return new QuestionWindow(items, prev, wraps, n);
     }
     
     @Override
-    public List<Question> searchQuestions(String keyword) {
-        List<Question> allQuestions = questionRepository.findAll();
-        if (keyword == null || keyword.trim().isEmpty()) {
-            return allQuestions;
+    public List<Question> getQuestionsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
         }
-        
-        List<Question> result = new ArrayList<>();
-        String searchTerm = keyword.trim().toLowerCase();
-        
-        for (Question question : allQuestions) {
-            if ((question.getContent() != null && question.getContent().toLowerCase().contains(searchTerm)) ||
-                (question.getOptionA() != null && question.getOptionA().toLowerCase().contains(searchTerm)) ||
-                (question.getOptionB() != null && question.getOptionB().toLowerCase().contains(searchTerm)) ||
-                (question.getOptionC() != null && question.getOptionC().toLowerCase().contains(searchTerm)) ||
-                (question.getOptionD() != null && question.getOptionD().toLowerCase().contains(searchTerm)) ) {
+        if (ids.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("一次最多获取 " + MAX_PAGE_SIZE + " 道题目");
+        }
+        return findOrdered(questionStore.current(), ids);
+    }
+    
+    private static int clampSide(Integer size) {
+        return size == null || size < 0 ? 0 : Math.min(size, MAX_WINDOW_SIDE);
+    }
+    
+    // 按给定 id 顺序从快照取题，不存在的 id 忽略
+    private static List<Question> findOrdered(QuestionSnapshot snapshot, List<Long> ids) {
+        List<Question> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Question question = id == null ? null : snapshot.get(id);
+            if (question != null) {
                 result.add(question);
             }
         }
-        
         return result;
     }
     
     @Override
-    @Transactional
+    public List<Question> searchQuestions(String keyword) {
+        // 走内存倒排索引（题干 + 选项 A-E），不再逐行 toLowerCase().contains()
+        return questionSearchIndex.search(keyword);
+    }
+    
+    @Override
     public Integer importQuestions(String textContent) {
+        return importQuestions(textContent, new ImportProgress());
+    }
+    
+    @Override
+    public Integer importQuestions(String textContent, ImportProgress progress) {
         if (textContent == null || textContent.trim().isEmpty()) {
             return 0;
         }
         
-        List<Question> questions = parseQuestionsFromText(textContent);
-        if (questions.isEmpty()) {
-            return 0;
+        StageClock clock = importMetrics.startClock("text");
+        boolean success = false;
+        try {
+            progress.checkCancelled();
+            clock.enter(Stage.PARSE);
+            List<Question> questions = TextQuestionParser.parse(textContent);
+            progress.addCharsParsed(textContent.length());
+            progress.addQuestionsFound(questions.size());
+            importMetrics.recordParsed("text", textContent.length(), questions.size(), 0);
+            if (questions.isEmpty()) {
+                success = true;
+                return 0;
+            }
+            
+            // 保存到数据库：解析在事务外完成，只有入库阶段占用数据库连接
+            clock.enter(Stage.PERSIST);
+            Integer saved = transactionTemplate.execute(status -> saveInBatches(questions, progress));
+            importMetrics.recordPersisted("text", saved);
+            importMetrics.recordDuplicates("text", questions.size() - saved);
+            success = true;
+            return saved;
+        } finally {
+            clock.stop();
+            importMetrics.recordResult("text", success);
         }
-        
-        // 保存到数据库
-        List<Question> savedQuestions = addQuestions(questions);
-        
-        return savedQuestions.size();
     }
     
-    /**
-     * 从文本解析题目
-     */
-    private List<Question> parseQuestionsFromText(String text) {
-        List<Question> questions = new ArrayList<>();
-        
-        // 预处理文本
-        String processedText = text
-                .replaceAll("\\s+", " ")
-                .replace("A.", "A、")
-                .replace("B.", "B、")
-                .replace("C.", "C、")
-                .replace("D.", "D、")
-                .replace("E.", "E、")
-                .replace("（", "(")
-                .replace("）", ")")
-                .trim();
-        
-        // 正则表达式匹配题目
-        String regex = "(\\d+)[、\\.]\\s*([^(]+?)\\s*\\(\\s*([A-Z]+)\\s*\\)\\s*A[、\\.]\\s*(.+?)\\s*B[、\\.]\\s*(.+?)\\s*C[、\\.]\\s*(.+?)\\s*D[、\\.]\\s*(.+?)(?=\\s*(?:E[、\\.]|\\d+[、\\.]|$))";
-        
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(processedText);
-        
-        while (matcher.find()) {
-            try {
-                Question question = new Question();
-               
-                question.setContent(matcher.group(2).trim());
-                
-                String answer = matcher.group(3).trim();
-                question.setAnswer(answer);
-                question.setQuestionType(answer.length() == 1 ? "single_choice" : "multi_choice");
-                
-                question.setOptionA(matcher.group(4).trim());
-                question.setOptionB(matcher.group(5).trim());
-                question.setOptionC(matcher.group(6).trim());
-                question.setOptionD(matcher.group(7).trim());
-                
-                questions.add(question);
-            } catch (Exception e) {
-                System.err.println("解析题目失败: " + e.getMessage());
+    // 分批写入（按内容指纹跳过已有题目），每批之前检查是否已取消（取消时抛出异常，整个事务回滚）
+    private int saveInBatches(List<Question> questions, ImportProgress progress) {
+        int saved = 0;
+        for (int from = 0; from < questions.size(); from += importBatchSize) {
+            progress.checkCancelled();
+            List<Question> batch = new ArrayList<>(questions.subList(from, Math.min(questions.size(), from + importBatchSize)));
+            List<Question> savedQuestions = questionBatchWriter.insertNew(batch);
+            questionChangePublisher.saved(savedQuestions);
+            progress.addRowsSaved(savedQuestions.size());
+            saved += savedQuestions.size();
+        }
+        return saved;
+    }
+    
+    @Override
+    public void exportAll(OutputStream out, boolean ndjson) throws IOException {
+        // 不关闭底层输出流，由 Web 容器负责
+        ObjectWriter writer = objectMapper.writerFor(Question.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        int written = 0;
+        // 直接遍历快照，整个导出期间看到的是同一版本的题库
+        try (SequenceWriter sequence = ndjson
+                ? writer.withRootValueSeparator("\n").writeValues(out)
+                : writer.writeValuesAsArray(out)) {
+            for (Question question : questionStore.current().all()) {
+                sequence.write(question);
+                // 第一题写出后立即刷新，客户端可以马上开始渲染
+                if (++written == 1 || written % EXPORT_FLUSH_EVERY == 0) {
+                    sequence.flush();
+                }
             }
         }
-        
-        return questions;
+        if (ndjson && written > 0) {
+            out.write('\n');
+        }
+        out.flush();
+    }
+    
+    @Override
+    public QuestionPage getQuestionPage(String cursor, Integer size, String questionType, String chapter) {
+        if (size == null || size <= 0) {
+            throw new IllegalArgumentException("分页大小必须大于 0");
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        long afterId = decodeCursor(cursor);
+        String type = blankToNull(questionType);
+        String chap = blankToNull(chapter);
+
+        // 从章节/题型位图中取游标之后的 id（多取一条用于判断是否还有下一页），再按 id 批量取题
+        long[] ids = questionFacetIndex.idsAfter(afterId, type, chap, pageSize + 1);
+        List<Long> pageIds = new ArrayList<>(Math.min(ids.length, pageSize));
+        for (int i = 0; i < ids.length && i < pageSize; i++) {
+            pageIds.add(ids[i]);
+        }
+        List<Question> rows = findOrdered(questionStore.current(), pageIds);
+        String nextCursor = ids.length > pageSize ? encodeCursor(ids[pageSize - 1]) : null;
+        long total = questionFacetIndex.count(type, chap);
+        return new QuestionPage(rows, nextCursor, total);
     }
 
     @Override
-    public List<Question> getAllQuestions(Integer page, Integer size) {
-        if (page == null || size == null) {
-            throw new IllegalArgumentException("分页参数不能为空");
+    public Map<String, Object> getFacets(String questionType, String chapter) {
+        return questionFacetIndex.facets(blankToNull(questionType), blankToNull(chapter));
+    }
+
+    // 游标即上一页最后一题的 id，Base64 编码后对客户端不透明
+    private static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            byte[] decoded = Base64.getUrlDecoder().decode(cursor);
+            return Long.parseLong(new String(decoded, StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标: " + cursor);
         }
-        throw new UnsupportedOperationException("Unimplemented method 'getAllQuestions'");
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
     }
 }
\ No newline at end of file
@@ -0,0 +1,230 @@
+package com.example.quiz.service.impl;
+
+import com.example.quiz.index.QuestionFacetIndex;
+import com.example.quiz.index.QuestionStore;
+import com.example.quiz.model.QuestionDifficulty;
+import com.example.quiz.model.QuestionStat;
+import com.example.quiz.repo.QuestionStatsWriter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 题目难度统计：每道题一组 LongAdder（作答次数、答对次数、A~E 各选项被选次数），判分时只做无锁累加，不访问数据库。
+ * 计数器为累计总数：首次使用时从 question_stats 表读回作为起点，之后每隔 quiz.stats.snapshot-interval-ms
+ * 把有变化的题目整行覆盖写回，应用关闭前再写一次。只适用于单实例部署（多实例会互相覆盖）。
+ */
+@Service
+public class QuestionStatsService {
+
+    public static final int MAX_LIMIT = 200;
+    private static final String LETTERS = "ABCDE";
+
+    @Autowired
+    private QuestionStatsWriter questionStatsWriter;
+
+    @Autowired
+    private QuestionFacetIndex questionFacetIndex;
+
+    @Autowired
+    private QuestionStore questionStore;
+
+    @Value("${quiz.stats.batch-size:500}")
+    private int batchSize;
+
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * 记录一次作答
+     * @param chosenMask 所选选项位掩码（A=1、B=2 …）
+     */
+    public void record(long questionId, int chosenMask, boolean correct) {
+        ensureLoaded();
+        Counters c = counters.get(questionId);
+        if (c == null) {
+            c = counters.computeIfAbsent(questionId, id -> new Counters());
+        }
+        c.record(chosenMask, correct);
+    }
+
+    /**
+     * 单题统计；没有作答记录时返回 null
+     */
+    public QuestionDifficulty get(long questionId) {
+        ensureLoaded();
+        Counters c = counters.get(questionId);
+        return c == null ? null : c.view(questionId);
+    }
+
+    /**
+     * 最难的题目：按章节、题型筛选（null 表示不限），只统计作答次数不少于 minAttempts 的题。
+     * 只在当前题库中的题目里挑选：已删除题目的计数器仍保留（按原 id 恢复题库时统计随之恢复），但不出现在结果中
+     * @param byWrongCount true 按答错次数从多到少，false 按正确率从低到高（相同时作答次数多的在前）
+     */
+    public List<QuestionDifficulty> hardest(String questionType, String chapter, boolean byWrongCount,
+                                            int minAttempts, int limit) {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit 应在 1 ~ " + MAX_LIMIT + " 之间");
+        }
+        questionType = blankToNull(questionType);
+        chapter = blankToNull(chapter);
+        ensureLoaded();
+        Comparator<QuestionDifficulty> harder = byWrongCount
+                ? Comparator.comparingLong(QuestionDifficulty::getWrong)
+                : Comparator.comparingDouble(QuestionDifficulty::getCorrectRate).reversed()
+                        .thenComparingLong(QuestionDifficulty::getAttempts);
+        // 小顶堆保留最难的 limit 道题，堆顶是其中最容易的
+        PriorityQueue<QuestionDifficulty> top = new PriorityQueue<>(limit + 1, harder);
+        long[] ids = questionType == null && chapter == null
+                ? questionStore.current().ids()
+                : questionFacetIndex.ids(questionType, chapter);
+        for (long id : ids) {
+            Counters c = counters.get(id);
+            if (c != null) {
+                offer(top, c, id, minAttempts, limit, harder);
+            }
+        }
+        List<QuestionDifficulty> result = new ArrayList<>(top);
+        result.sort(harder.reversed());
+        return result;
+    }
+
+    /**
+     * 把有变化的计数器写回数据库
+     */
+    @Scheduled(fixedDelayString = "${quiz.stats.snapshot-interval-ms:60000}")
+    public synchronized void snapshot() {
+        if (!loaded) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Counters> changed = new ArrayList<>();
+        List<QuestionStat> rows = new ArrayList<>();
+        counters.forEach((id, c) -> {
+            if (c.dirty) {
+                // 先清标记再读数：读数期间的新作答会重新置位，下一轮再写
+                c.dirty = false;
+                changed.add(c);
+                rows.add(c.toStat(id, now));
+            }
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            questionStatsWriter.upsertAll(rows, batchSize);
+        } catch (RuntimeException e) {
+            changed.forEach(c -> c.dirty = true);
+            System.err.println("题目统计写入失败，" + rows.size() + " 道题将在下次重试: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    private void offer(PriorityQueue<QuestionDifficulty> top, Counters c, long id, int minAttempts, int limit,
+                       Comparator<QuestionDifficulty> harder) {
+        if (c.attempts.sum() < minAttempts) {
+            return;
+        }
+        QuestionDifficulty view = c.view(id);
+        if (top.size() < limit) {
+            top.offer(view);
+        } else if (harder.compare(view, top.peek()) > 0) {
+            top.poll();
+            top.offer(view);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                for (QuestionStat stat : questionStatsWriter.findAll()) {
+                    counters.computeIfAbsent(stat.getQuestionId(), id -> new Counters()).add(stat);
+                }
+                loaded = true;
+            }
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static final class Counters {
+        final LongAdder attempts = new LongAdder();
+        final LongAdder correct = new LongAdder();
+        final LongAdder[] picks = new LongAdder[LETTERS.length()];
+        // 自上次快照以来是否有新作答
+        volatile boolean dirty;
+
+        Counters() {
+            for (int i = 0; i < picks.length; i++) {
+                picks[i] = new LongAdder();
+            }
+        }
+
+        void record(int chosenMask, boolean isCorrect) {
+            attempts.increment();
+            if (isCorrect) {
+                correct.increment();
+            }
+            for (int i = 0; i < picks.length; i++) {
+                if ((chosenMask & (1 << i)) != 0) {
+                    picks[i].increment();
+                }
+            }
+            if (!dirty) { // 已置位时不再写 volatile，避免热点题目的缓存行争用
+                dirty = true;
+            }
+        }
+
+        void add(QuestionStat stat) {
+            attempts.add(stat.getAttempts());
+            correct.add(stat.getCorrect());
+            picks[0].add(stat.getPickA());
+            picks[1].add(stat.getPickB());
+            picks[2].add(stat.getPickC());
+            picks[3].add(stat.getPickD());
+            picks[4].add(stat.getPickE());
+        }
+
+        QuestionDifficulty view(long id) {
+            long total = attempts.sum();
+            long right = Math.min(correct.sum(), total);
+            Map<String, Long> pickCounts = new LinkedHashMap<>();
+            for (int i = 0; i < picks.length; i++) {
+                pickCounts.put(String.valueOf(LETTERS.charAt(i)), picks[i].sum());
+            }
+            return new QuestionDifficulty(id, total, right, total - right,
+                    total == 0 ? 0 : (double) right / total, pickCounts);
+        }
+
+        QuestionStat toStat(long id, LocalDateTime now) {
+            QuestionStat stat = new QuestionStat();
+            stat.setQuestionId(id);
+            stat.setAttempts(attempts.sum());
+            stat.setCorrect(correct.sum());
+            stat.setPickA(picks[0].sum());
+            stat.setPickB(picks[1].sum());
+            stat.setPickC(picks[2].sum());
+            stat.setPickD(picks[3].sum());
+            stat.setPickE(picks[4].sum());
+            stat.setUpdatedAt(now);
+            return stat;
+        }
+    }
+}
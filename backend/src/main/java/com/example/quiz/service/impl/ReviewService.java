@@ -0,0 +1,250 @@
+package com.example.quiz.service.impl;
+
+import com.example.quiz.model.Question;
+import com.example.quiz.model.ReviewCard;
+import com.example.quiz.model.ReviewItem;
+import com.example.quiz.model.ReviewSummary;
+import com.example.quiz.repo.ReviewCardWriter;
+import com.example.quiz.service.QuestionService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 错题复习（SM-2 间隔重复）：每个用户答错过的题各有一张复习卡片，再次作答时按对错调整下次复习时间。
+ * 每个用户的卡片放在 {@link UserReviewSchedule}（按到期时间排序的堆）中，取下一道到期的题不扫描全部卡片；
+ * 用户首次访问时才从 review_card 表加载，按卡片总数限制缓存容量，长时间不活跃的用户被淘汰，下次访问再加载。
+ * 卡片变化先记在按 用户 + 题目 合并的待写表中，每隔 quiz.review.flush-interval-ms 批量写库，应用关闭前再写一次；
+ * 加载时以待写表中的内容为准，淘汰后立即重新加载也不会读到旧数据。
+ */
+@Service
+public class ReviewService {
+
+    // 与 review_card.user_id 列长度一致
+    private static final int MAX_USER_ID_LENGTH = 64;
+
+    private final ReviewCardWriter reviewCardWriter;
+    private final QuestionService questionService;
+    private final Cache<String, UserReviewSchedule> schedules;
+    // 待写入的卡片变化：用户 → 题目 id → 最新状态，同一张卡片多次变化只写最后一次
+    private final Map<String, Map<Long, Change>> pending = new ConcurrentHashMap<>();
+    private final long relearnMillis;
+    private final int batchSize;
+
+    public ReviewService(ReviewCardWriter reviewCardWriter, QuestionService questionService, MeterRegistry registry,
+                         @Value("${quiz.review.max-cached-cards:1000000}") long maxCachedCards,
+                         @Value("${quiz.review.idle-minutes:30}") long idleMinutes,
+                         @Value("${quiz.review.relearn-minutes:10}") long relearnMinutes,
+                         @Value("${quiz.review.batch-size:500}") int batchSize) {
+        this.reviewCardWriter = reviewCardWriter;
+        this.questionService = questionService;
+        this.relearnMillis = Duration.ofMinutes(relearnMinutes).toMillis();
+        this.batchSize = batchSize;
+        // 权重按加载时的卡片数计，新增卡片后重新放入以更新权重
+        this.schedules = Caffeine.newBuilder()
+                .maximumWeight(maxCachedCards)
+                .weigher((String userId, UserReviewSchedule schedule) -> schedule.size() + 1)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+        Gauge.builder("quiz.review.cached.users", schedules, Cache::estimatedSize)
+                .description("内存中的复习计划用户数").register(registry);
+        Gauge.builder("quiz.review.pending", pending, ReviewService::countPending)
+                .description("等待写入数据库的复习卡片变化数").register(registry);
+    }
+
+    /**
+     * 记录一次作答：答错的题新建卡片或重新开始，已有卡片的题答对后延长间隔；从未答错过的题答对不建卡片
+     */
+    public void record(String userId, long questionId, boolean correct) {
+        UserReviewSchedule schedule = schedule(userId);
+        long now = System.currentTimeMillis();
+        boolean added = false;
+        synchronized (schedule) {
+            UserReviewSchedule.Card card = schedule.get(questionId);
+            if (card == null) {
+                if (correct) {
+                    return;
+                }
+                card = UserReviewSchedule.Card.missed(questionId, now, relearnMillis);
+                schedule.add(card);
+                added = true;
+            } else {
+                card.review(correct, now, relearnMillis);
+                schedule.rescheduled(card);
+            }
+            enqueue(userId, new Change(toRow(userId, card), false));
+        }
+        if (added) {
+            schedules.asMap().replace(userId, schedule, schedule);
+        }
+    }
+
+    /**
+     * 下一道到期的题；没有到期的题时返回 null。ahead 为 true 时不管是否到期，返回最早到期的一道（提前复习）。
+     * 只读取不改期，作答后才按结果调整计划。
+     */
+    public ReviewItem next(String userId, boolean ahead) {
+        UserReviewSchedule schedule = schedule(userId);
+        long now = System.currentTimeMillis();
+        while (true) {
+            UserReviewSchedule.Card card;
+            ReviewItem item;
+            synchronized (schedule) {
+                card = schedule.peek();
+                if (card == null || (!ahead && card.dueAt > now)) {
+                    return null;
+                }
+                item = new ReviewItem(null, toDateTime(card.dueAt), card.intervalDays, card.repetitions,
+                        card.lapses, schedule.countDue(now));
+            }
+            List<Question> found = questionService.getQuestionsByIds(List.of(card.questionId));
+            if (!found.isEmpty()) {
+                item.setQuestion(found.get(0));
+                return item;
+            }
+            // 题目已被删除，卡片随之删除
+            synchronized (schedule) {
+                if (schedule.get(card.questionId) == card) {
+                    schedule.remove(card);
+                    enqueue(userId, new Change(toRow(userId, card), true));
+                }
+            }
+        }
+    }
+
+    public ReviewSummary summary(String userId) {
+        UserReviewSchedule schedule = schedule(userId);
+        synchronized (schedule) {
+            UserReviewSchedule.Card first = schedule.peek();
+            return new ReviewSummary(schedule.size(), schedule.countDue(System.currentTimeMillis()),
+                    first == null ? null : toDateTime(first.dueAt));
+        }
+    }
+
+    /**
+     * 把待写表中的卡片变化写入数据库；写入成功的条目若期间没有再变化则移除，失败时全部保留到下次
+     */
+    @Scheduled(fixedDelayString = "${quiz.review.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<Change> changes = new ArrayList<>();
+        pending.values().forEach(byQuestion -> changes.addAll(byQuestion.values()));
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<ReviewCard> upserts = new ArrayList<>();
+        List<ReviewCard> deletes = new ArrayList<>();
+        for (Change change : changes) {
+            (change.deleted ? deletes : upserts).add(change.row);
+        }
+        try {
+            if (!upserts.isEmpty()) {
+                reviewCardWriter.upsertAll(upserts, batchSize);
+            }
+            if (!deletes.isEmpty()) {
+                reviewCardWriter.deleteAll(deletes, batchSize);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("复习卡片写入失败，" + changes.size() + " 条将在下次重试: " + e.getMessage());
+            return;
+        }
+        for (Change change : changes) {
+            pending.computeIfPresent(change.row.getUserId(), (userId, byQuestion) -> {
+                byQuestion.remove(change.row.getQuestionId(), change);
+                return byQuestion.isEmpty() ? null : byQuestion;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private UserReviewSchedule schedule(String userId) {
+        if (userId == null || userId.isBlank()) {
+            throw new IllegalArgumentException("缺少 userId");
+        }
+        if (userId.length() > MAX_USER_ID_LENGTH) {
+            throw new IllegalArgumentException("userId 过长");
+        }
+        return schedules.get(userId, this::load);
+    }
+
+    private UserReviewSchedule load(String userId) {
+        // 先取待写的变化再查库：两者之间刚写完的变化已在库中，仍未写的以待写表为准
+        Map<Long, Change> unsaved = pending.get(userId);
+        Map<Long, Change> overrides = unsaved == null ? Map.of() : new HashMap<>(unsaved);
+        UserReviewSchedule schedule = new UserReviewSchedule();
+        for (ReviewCard row : reviewCardWriter.findByUser(userId)) {
+            if (!overrides.containsKey(row.getQuestionId())) {
+                schedule.add(fromRow(row));
+            }
+        }
+        for (Change change : overrides.values()) {
+            if (!change.deleted) {
+                schedule.add(fromRow(change.row));
+            }
+        }
+        return schedule;
+    }
+
+    // 经由 compute 修改内层表，与 flush 移除空表互斥，不会丢失变化
+    private void enqueue(String userId, Change change) {
+        pending.compute(userId, (key, byQuestion) -> {
+            if (byQuestion == null) {
+                byQuestion = new ConcurrentHashMap<>();
+            }
+            byQuestion.put(change.row.getQuestionId(), change);
+            return byQuestion;
+        });
+    }
+
+    private static double countPending(Map<String, Map<Long, Change>> pending) {
+        long count = 0;
+        for (Map<Long, Change> byQuestion : pending.values()) {
+            count += byQuestion.size();
+        }
+        return count;
+    }
+
+    private static ReviewCard toRow(String userId, UserReviewSchedule.Card card) {
+        ReviewCard row = new ReviewCard();
+        row.setUserId(userId);
+        row.setQuestionId(card.questionId);
+        row.setRepetitions(card.repetitions);
+        row.setIntervalDays(card.intervalDays);
+        row.setEase(card.ease);
+        row.setLapses(card.lapses);
+        row.setDueAt(toDateTime(card.dueAt));
+        row.setUpdatedAt(LocalDateTime.now());
+        return row;
+    }
+
+    private static UserReviewSchedule.Card fromRow(ReviewCard row) {
+        long dueAt = row.getDueAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new UserReviewSchedule.Card(row.getQuestionId(), dueAt, row.getIntervalDays(),
+                row.getRepetitions(), row.getLapses(), row.getEase());
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private record Change(ReviewCard row, boolean deleted) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.quiz.service.impl;
 
+import com.example.quiz.parse.ChunkedTextHandler;
 import com.example.quiz.service.TikaService;
 import org.apache.tika.Tika;
 import org.apache.tika.metadata.Metadata;
@@ -13,6 +14,7 @@ import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.util.function.Consumer;
 
 /**
  * Tika 服务实现类，基于 Apache Tika 解析 PDF 文档
@@ -63,6 +65,24 @@ public class TikaServiceImpl implements TikaService {
         }
     }
 
+    @Override
+    public long extractTextFromPdf(InputStream pdfInputStream, int chunkSize, Consumer<String> chunkConsumer) throws Exception {
+        // 自定义 SAX 处理器：按页/按块输出文本，内存占用与文档大小无关
+        ChunkedTextHandler contentHandler = new ChunkedTextHandler(chunkConsumer, chunkSize);
+        Metadata metadata = new Metadata();
+        ParseContext parseContext = new ParseContext();
+
+        AutoDetectParser parser = new AutoDetectParser();
+        parseContext.set(PDFParser.class, new PDFParser());
+
+        try {
+            parser.parse(pdfInputStream, contentHandler, metadata, parseContext);
+            return contentHandler.getTotalChars();
+        } finally {
+            pdfInputStream.close();
+        }
+    }
+
     @Override
     public boolean isPdfFile(File file) throws Exception {
         // 通过 Tika 检测文件 MIME 类型
@@ -0,0 +1,183 @@
+package com.example.quiz.service.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 单个用户的复习卡片：题目 id → 卡片的 HashMap，加上按到期时间排序的小顶堆。
+ * 卡片记录自己在堆数组中的下标，取最早到期的卡片 O(1)，新增、改期、删除 O(log n)，不需要扫描全部卡片。
+ * 非线程安全，调用方对整个对象加锁。
+ */
+final class UserReviewSchedule {
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final float MIN_EASE = 1.3f;
+    private static final int MAX_INTERVAL_DAYS = 3650;
+
+    private final Map<Long, Card> cards = new HashMap<>();
+    private Card[] heap = new Card[8];
+    private int size;
+
+    Card get(long questionId) {
+        return cards.get(questionId);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 最早到期的卡片；没有卡片时返回 null
+     */
+    Card peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    void add(Card card) {
+        Card previous = cards.put(card.questionId, card);
+        if (previous != null) {
+            removeAt(previous.heapIndex);
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        card.heapIndex = size;
+        heap[size++] = card;
+        siftUp(card.heapIndex);
+    }
+
+    /**
+     * 卡片的到期时间改变后调整其在堆中的位置
+     */
+    void rescheduled(Card card) {
+        siftDown(siftUp(card.heapIndex));
+    }
+
+    void remove(Card card) {
+        if (cards.remove(card.questionId, card)) {
+            removeAt(card.heapIndex);
+        }
+    }
+
+    /**
+     * 到期时间不晚于 now 的卡片数：只访问到期的节点及其直接子节点，与未到期的卡片数无关
+     */
+    int countDue(long now) {
+        return countDue(0, now);
+    }
+
+    private int countDue(int i, long now) {
+        if (i >= size || heap[i].dueAt > now) {
+            return 0;
+        }
+        return 1 + countDue(2 * i + 1, now) + countDue(2 * i + 2, now);
+    }
+
+    private void removeAt(int i) {
+        Card last = heap[--size];
+        heap[size] = null;
+        if (i < size) {
+            heap[i] = last;
+            last.heapIndex = i;
+            siftDown(siftUp(i));
+        }
+        if (heap.length > 8 && size < heap.length / 4) {
+            heap = Arrays.copyOf(heap, heap.length / 2);
+        }
+    }
+
+    private int siftUp(int i) {
+        Card card = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent].dueAt <= card.dueAt) {
+                break;
+            }
+            place(heap[parent], i);
+            i = parent;
+        }
+        place(card, i);
+        return i;
+    }
+
+    private void siftDown(int i) {
+        Card card = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1].dueAt < heap[child].dueAt) {
+                child++;
+            }
+            if (card.dueAt <= heap[child].dueAt) {
+                break;
+            }
+            place(heap[child], i);
+            i = child;
+        }
+        place(card, i);
+    }
+
+    private void place(Card card, int i) {
+        heap[i] = card;
+        card.heapIndex = i;
+    }
+
+    /**
+     * 一道题的复习计划（SM-2）。时间均为毫秒时间戳，字段尽量用基本类型以减少每张卡片的内存占用。
+     */
+    static final class Card {
+        final long questionId;
+        long dueAt;
+        int intervalDays;
+        int repetitions;
+        int lapses;
+        float ease;
+        int heapIndex;
+
+        Card(long questionId, long dueAt, int intervalDays, int repetitions, int lapses, float ease) {
+            this.questionId = questionId;
+            this.dueAt = dueAt;
+            this.intervalDays = intervalDays;
+            this.repetitions = repetitions;
+            this.lapses = lapses;
+            this.ease = ease;
+        }
+
+        /**
+         * 新的错题卡片，relearnMillis 后到期
+         */
+        static Card missed(long questionId, long now, long relearnMillis) {
+            Card card = new Card(questionId, now, 0, 0, 0, 2.5f);
+            card.review(false, now, relearnMillis);
+            return card;
+        }
+
+        /**
+         * 按一次作答结果更新计划。判分只有对错，按 SM-2 的作答质量折算为答对 4、答错 1：
+         * 答对时间隔依次为 1 天、6 天、上次间隔 × 难易系数；答错时连续答对次数清零，relearnMillis 后重新到期，
+         * 下次答对从 1 天重新开始。难易系数按 SM-2 公式调整，答对 4 分时保持不变。
+         */
+        void review(boolean correct, long now, long relearnMillis) {
+            int quality = correct ? 4 : 1;
+            if (correct) {
+                if (repetitions == 0) {
+                    intervalDays = 1;
+                } else if (repetitions == 1) {
+                    intervalDays = 6;
+                } else {
+                    intervalDays = Math.min(MAX_INTERVAL_DAYS, Math.round(intervalDays * ease));
+                }
+                repetitions++;
+                dueAt = now + intervalDays * DAY_MILLIS;
+            } else {
+                repetitions = 0;
+                intervalDays = 1;
+                lapses++;
+                dueAt = now + relearnMillis;
+            }
+            int miss = 5 - quality;
+            ease = Math.max(MIN_EASE, ease + 0.1f - miss * (0.08f + miss * 0.02f));
+        }
+    }
+}
@@ -9,7 +9,7 @@ import java.util.regex.Pattern;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.example.quiz.model.Question;
-import com.example.quiz.repo.QuestionRepository;
+import com.example.quiz.repo.QuestionBatchWriter;
 import com.example.quiz.service.impl.TikaServiceImpl;
 
 import jakarta.transaction.Transactional;
@@ -20,7 +20,7 @@ public class PDFFileImport {
 
         
         @Autowired
-        private QuestionRepository questionRepository;
+        private QuestionBatchWriter questionBatchWriter;
         @Autowired
         private TikaServiceImpl tikaServiceImpl;
 
@@ -40,59 +40,7 @@ public class PDFFileImport {
             
             String result = tikaServiceImpl.extractTextFromPdf(file);
 
-
-            // 文本预处理：统一格式，消除PDF提取的常见干扰
-                String processedResult = result
-                                            // 第一阶段：规范化格式
-                                            // 1. 统一全角/半角字符
-                                            .replace("　", " ")          // 全角空格转半角空格
-                                            .replace("（", "(")          // 全角括号转半角
-                                            .replace("）", ")")
-                                            .replace("．", "")          // 全角点转半角点
-                                            .replace("，", "")
-                                            .replace("；", ";")
-                                            .replace("：", ":")
-                                            .replace("？", "?")
-                                            .replace("！", "!")
-                                            .replace("、", "")          // 中文顿号转逗号
-                                            
-                                            // 2. 移除所有换行和制表符
-                                            .replaceAll("\\s", "")
-                                            
-                                            // 第二阶段：统一题号和选项格式
-                                            // 4. 统一题号格式（所有题号都变成"数字、"形式）
-                                            .replaceAll("(\\d+)\\s*[\\.、,]\\s*", "$1")
-                                            
-                                            // 5. 统一选项格式
-                                            .replaceAll("\\s*([A-E])\\s*[\\.、，,]\\s*", "$1")  // 选项前无空格，后无标点
-                                            
-                                        
-                                        
-                                            
-                                            // 第三阶段：移除不需要的字符和标题
-                                            // 8. 移除章节标题和特殊标记
-                                            .replaceAll("第[一二三四五六七八九十]+章\\s*", "")
-                                            .replaceAll("第[一二三四五六七八九十]+节\\s*", "")
-                                            .replaceAll("[一二三四五六七八九十]、[^\\s]*题型", "")
-                                            .replaceAll("一单项选择题", "")
-                                            .replaceAll("二多项选择题", "")
-                                            .replaceAll("三材料分析题", "")
-                                            .replaceFirst("《马克思主义基本原理概论》", "")
-                                            .replace("绪论", "")
-                                            .replace("题库", "")
-                                            .replace("试卷", "")
-                                            .replace("测试题", "")
-                                            
-                                            // 9. 移除不可见字符和特殊符号
-                                            .replaceAll("[｡●◆■▲►▼◄►◄※★☆◎○●◇◆□℃§¶•→←↑↓↔↕↨↻⇄⇅⇆⇇⇈⇉]", "")
-                                            .replaceAll("[\\u0000-\\u001F\\u007F-\\u009F]", "")  // 控制字符
-                                            .replaceAll("[\\u2000-\\u206F\\u2E00-\\u2E7F]", "")  // 标点符号区域
-                                            .replaceAll("[\\u3000]", "")  // 表意文字空格
-                                            
-                                            
-                                            // 13. 清理开头和结尾的空格
-                                            .trim();
-                    
+            String processedResult = preprocess(result);
 
             // 关键：打印预处理后的文本片段，确认格式是否统一（重点看题号、答案、选项的格式）
             System.out.println("预处理后的文本片段（前1000字符）：\n" + processedResult.substring(0, Math.min(processedResult.length(), 1000)));
@@ -122,10 +70,17 @@ public class PDFFileImport {
                 }
 
                 questions.add(question);
-                
-                questionRepository.save(question);
 
             }
+            // 全部解析完后一次批量写入（按内容指纹跳过已有题目），避免在匹配循环中逐条 save
+            questionBatchWriter.insertNew(questions);
             System.out.println("总共解析出 " + questions.size() + " 道题目。");
         }
+
+        /**
+         * 文本预处理：统一格式，消除PDF提取的常见干扰（单次扫描，规则见 TextNormalizer.PDF）
+         */
+        public static String preprocess(String text) {
+            return TextNormalizer.PDF.normalize(text);
+        }
 }
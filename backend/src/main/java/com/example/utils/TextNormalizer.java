@@ -0,0 +1,408 @@
+package com.example.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单次扫描的文本规范化器：全角转半角、符号统一、控制字符/特殊符号删除、空白合并、换行统一在一次遍历中完成。
+ * 逐字符查表（按高 8 位分块的映射表，未配置的块为空，原样输出），输出写入一个与输入等长的 char 数组，
+ * 替代逐步 replace/replaceAll 的写法（每一步都复制整个文档、部分还要重新编译正则）。
+ * 不同解析器的预处理规则不同，各用一个配置（见下方常量，或用 {@link #builder()} 自行组合）。实例不可变、线程安全。
+ */
+public final class TextNormalizer {
+
+    public enum Whitespace {
+        KEEP,     // 保留空白
+        COLLAPSE, // 连续空白（含换行）合并为一个空格
+        REMOVE    // 删除所有空白
+    }
+
+    // 映射表中表示“删除该字符”的值（U+FFFF 不是合法字符，输入中出现时同样删除）
+    private static final char DROP = '\uFFFF';
+    private static final String CHINESE_NUMERALS = "一二三四五六七八九十";
+
+    /**
+     * 全角字符转半角（CommonUtil.fullWidthToHalfWidth）
+     */
+    public static final TextNormalizer FULL_WIDTH = builder().foldFullWidth().build();
+
+    /**
+     * 题库文档（ParseServiceImpl、IncrementalQuestionParser）：“､”“（”“）”转为“、”“(”“)”，统一换行符并合并空行，去除首尾空白
+     */
+    public static final TextNormalizer DOCUMENT = builder()
+            .map("､（）", "、()")
+            .normalizeNewlines()
+            .collapseBlankLines()
+            .trim()
+            .build();
+
+    /**
+     * 粘贴文本（TextQuestionParser）：空白合并为一个空格，选项标号“A.”统一为“A、”，全角括号转半角
+     */
+    public static final TextNormalizer PASTED_TEXT = builder()
+            .whitespace(Whitespace.COLLAPSE)
+            .map("（）", "()")
+            .replaceAfter("ABCDE", '.', '、')
+            .trim()
+            .build();
+
+    /**
+     * PDF 正则导入（PDFFileImport）：删除所有空白，题号、选项标号后的标点，章节标题、题型标题、书名等固定字样，
+     * 以及控制字符、通用标点区和特殊符号
+     */
+    public static final TextNormalizer PDF = builder()
+            .map("（）；：？！", "();:?!")
+            .delete("．，、\u3000")
+            .whitespace(Whitespace.REMOVE)
+            .dropAfter("0123456789ABCDE", ".,")
+            .deleteNumbered('第', CHINESE_NUMERALS, "章节")
+            .deletePhrases("一单项选择题", "二多项选择题", "三材料分析题", "《马克思主义基本原理概论》",
+                    "绪论", "题库", "试卷", "测试题")
+            .delete("｡●◆■▲►▼◄※★☆◎○◇□℃§¶•→←↑↓↔↕↨↻⇄⇅⇆⇇⇈⇉")
+            .deleteRange('\u0000', '\u001F')
+            .deleteRange('\u007F', '\u009F')
+            .deleteRange('\u2000', '\u206F')
+            .deleteRange('\u2E00', '\u2E7F')
+            .trim()
+            .build();
+
+    // table[c >>> 8][c & 0xFF]：c 映射后的字符或 DROP；块为 null 表示该块字符原样输出
+    private final char[][] table;
+    // 需要上下文判断的字符（上下文规则的目标字符、词组末字符），位图
+    private final long[] special;
+    private final ContextRule[] contextRules;
+    private final String[] phrases;
+    private final char numberedPrefix;
+    private final String numberedDigits;
+    private final String numberedSuffixes;
+    private final Whitespace whitespace;
+    private final boolean normalizeNewlines;
+    private final boolean collapseBlankLines;
+    private final boolean trim;
+
+    private TextNormalizer(Builder builder) {
+        this.table = builder.table;
+        this.special = builder.special;
+        this.contextRules = builder.contextRules.toArray(new ContextRule[0]);
+        this.phrases = builder.phrases.toArray(new String[0]);
+        this.numberedPrefix = builder.numberedPrefix;
+        this.numberedDigits = builder.numberedDigits;
+        this.numberedSuffixes = builder.numberedSuffixes;
+        this.whitespace = builder.whitespace;
+        this.normalizeNewlines = builder.normalizeNewlines;
+        this.collapseBlankLines = builder.collapseBlankLines;
+        this.trim = builder.trim;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 规范化整段文本
+     * @return 规范化后的文本；text 为 null 时返回 null
+     */
+    public String normalize(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        char[] out = new char[text.length()]; // 每个字符至多输出一个字符，输出不会比输入长
+        int length = new Session().run(text, out, 0);
+        if (trim) {
+            while (length > 0 && out[length - 1] <= ' ') {
+                length--;
+            }
+        }
+        return new String(out, 0, length);
+    }
+
+    /**
+     * 分块规范化（流式解析用），跨分块保持换行、空白合并等状态。
+     * 词组删除需要回看已输出的文本，不支持分块，配置了词组删除时抛出 IllegalStateException。
+     */
+    public Session session() {
+        if (phrases.length > 0 || numberedSuffixes != null) {
+            throw new IllegalStateException("配置了词组删除的规范化器不支持分块处理");
+        }
+        return new Session();
+    }
+
+    /**
+     * 一次规范化过程的状态；非线程安全
+     */
+    public final class Session {
+
+        private char[] buffer = new char[0];
+        private boolean atStart = true; // 尚未输出任何字符
+        private char last;              // 上一个输出的字符
+        private boolean lastWasCr;      // 上一个输入字符是 \r（\r\n 只算一个换行）
+        private boolean contextDropped; // 上一个输出字符之后已按上下文规则删除过一个字符
+
+        private Session() {
+        }
+
+        /**
+         * 规范化一段文本并追加到 out（末尾空白不去除）
+         */
+        public void append(CharSequence chunk, StringBuilder out) {
+            if (buffer.length < chunk.length()) {
+                buffer = new char[chunk.length()];
+            }
+            int length = run(chunk, buffer, 0);
+            out.append(buffer, 0, length);
+        }
+
+        // 主循环：查表映射 → 空白/换行处理 → 上下文规则 → 输出 → 词组删除；返回输出结束位置
+        private int run(CharSequence in, char[] out, int pos) {
+            for (int i = 0, n = in.length(); i < n; i++) {
+                char c = in.charAt(i);
+                if (normalizeNewlines) {
+                    if (c == '\n' && lastWasCr) {
+                        lastWasCr = false;
+                        continue;
+                    }
+                    lastWasCr = c == '\r';
+                }
+                char[] block = table[c >>> 8];
+                char m = block == null ? c : block[c & 0xFF];
+                if (m == DROP) {
+                    continue;
+                }
+                if (m <= ' ') {
+                    if (isWhitespace(m) && whitespace != Whitespace.KEEP) {
+                        if (whitespace == Whitespace.REMOVE || (!atStart && last == ' ')) {
+                            continue;
+                        }
+                        m = ' ';
+                    } else if (m == '\n' && collapseBlankLines && !atStart && last == '\n') {
+                        continue;
+                    }
+                    if (trim && atStart) {
+                        continue;
+                    }
+                }
+                boolean isSpecial = (special[m >>> 6] & (1L << m)) != 0;
+                if (isSpecial && !atStart && !contextDropped) {
+                    ContextRule rule = contextRule(m);
+                    if (rule != null && rule.previous.indexOf(last) >= 0) {
+                        if (rule.replacement == DROP) {
+                            contextDropped = true;
+                            continue;
+                        }
+                        m = rule.replacement;
+                    }
+                }
+                out[pos++] = m;
+                last = m;
+                atStart = false;
+                contextDropped = false;
+                if (isSpecial && (phrases.length > 0 || numberedSuffixes != null)) {
+                    int end = deletePhraseEnding(out, pos, m);
+                    if (end != pos) {
+                        pos = end;
+                        atStart = pos == 0;
+                        last = pos > 0 ? out[pos - 1] : 0;
+                    }
+                }
+            }
+            return pos;
+        }
+    }
+
+    private ContextRule contextRule(char c) {
+        for (ContextRule rule : contextRules) {
+            if (rule.target == c) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    // out[0, pos) 以某个待删除词组（或“第X章”式标题）结尾时返回删除后的结束位置，否则返回 pos
+    private int deletePhraseEnding(char[] out, int pos, char lastChar) {
+        for (String phrase : phrases) {
+            int length = phrase.length();
+            if (phrase.charAt(length - 1) == lastChar && pos >= length && endsWith(out, pos, phrase)) {
+                return pos - length;
+            }
+        }
+        if (numberedSuffixes != null && numberedSuffixes.indexOf(lastChar) >= 0) {
+            int j = pos - 2;
+            while (j >= 0 && numberedDigits.indexOf(out[j]) >= 0) {
+                j--;
+            }
+            if (j < pos - 2 && j >= 0 && out[j] == numberedPrefix) {
+                return j;
+            }
+        }
+        return pos;
+    }
+
+    private static boolean endsWith(char[] out, int pos, String phrase) {
+        for (int k = phrase.length() - 1, j = pos - 1; k >= 0; k--, j--) {
+            if (out[j] != phrase.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 与正则 \s 相同：空格、\t、\n、\u000B、\f、\r
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    // 上下文规则：target 紧跟在 previous 中的字符之后时替换为 replacement（DROP 表示删除，连续多个只删第一个）
+    private record ContextRule(String previous, char target, char replacement) {
+    }
+
+    public static final class Builder {
+
+        private final char[][] table = new char[256][];
+        private final long[] special = new long[1024];
+        private final List<ContextRule> contextRules = new ArrayList<>();
+        private final List<String> phrases = new ArrayList<>();
+        private char numberedPrefix;
+        private String numberedDigits;
+        private String numberedSuffixes;
+        private Whitespace whitespace = Whitespace.KEEP;
+        private boolean normalizeNewlines;
+        private boolean collapseBlankLines;
+        private boolean trim;
+
+        private Builder() {
+        }
+
+        /**
+         * 全角字符（U+FF01 ~ U+FF5E）转为对应半角字符，全角空格转为半角空格
+         */
+        public Builder foldFullWidth() {
+            for (char c = '\uFF01'; c <= '\uFF5E'; c++) {
+                set(c, (char) (c - 0xFEE0));
+            }
+            set('\u3000', ' ');
+            return this;
+        }
+
+        /**
+         * from 中的每个字符替换为 to 中相同位置的字符
+         */
+        public Builder map(String from, String to) {
+            if (from.length() != to.length()) {
+                throw new IllegalArgumentException("from 与 to 长度必须相同");
+            }
+            for (int i = 0; i < from.length(); i++) {
+                set(from.charAt(i), to.charAt(i));
+            }
+            return this;
+        }
+
+        public Builder delete(String chars) {
+            for (int i = 0; i < chars.length(); i++) {
+                set(chars.charAt(i), DROP);
+            }
+            return this;
+        }
+
+        public Builder deleteRange(char from, char to) {
+            for (int c = from; c <= to; c++) {
+                set((char) c, DROP);
+            }
+            return this;
+        }
+
+        public Builder whitespace(Whitespace whitespace) {
+            this.whitespace = whitespace;
+            return this;
+        }
+
+        /**
+         * \r\n、\r 统一为 \n
+         */
+        public Builder normalizeNewlines() {
+            this.normalizeNewlines = true;
+            set('\r', '\n');
+            return this;
+        }
+
+        /**
+         * 连续的换行合并为一个（不跨越空格等其他字符）
+         */
+        public Builder collapseBlankLines() {
+            this.collapseBlankLines = true;
+            return this;
+        }
+
+        /**
+         * target 紧跟在 previous 中的某个字符之后时替换为 replacement
+         */
+        public Builder replaceAfter(String previous, char target, char replacement) {
+            contextRules.add(new ContextRule(previous, target, replacement));
+            mark(target);
+            return this;
+        }
+
+        /**
+         * targets 中的字符紧跟在 previous 中的某个字符之后时删除（连续多个只删第一个）
+         */
+        public Builder dropAfter(String previous, String targets) {
+            for (int i = 0; i < targets.length(); i++) {
+                replaceAfter(previous, targets.charAt(i), DROP);
+            }
+            return this;
+        }
+
+        /**
+         * 删除固定词组（在规范化后的文本上匹配）
+         */
+        public Builder deletePhrases(String... phrases) {
+            for (String phrase : phrases) {
+                this.phrases.add(phrase);
+                mark(phrase.charAt(phrase.length() - 1));
+            }
+            return this;
+        }
+
+        /**
+         * 删除“前缀 + 至少一个序号字符 + 后缀”形式的标题，如“第三章”“第十二节”
+         */
+        public Builder deleteNumbered(char prefix, String digits, String suffixes) {
+            this.numberedPrefix = prefix;
+            this.numberedDigits = digits;
+            this.numberedSuffixes = suffixes;
+            for (int i = 0; i < suffixes.length(); i++) {
+                mark(suffixes.charAt(i));
+            }
+            return this;
+        }
+
+        /**
+         * 去除首尾空白（与 String.trim 相同，码值 ≤ 空格的字符）
+         */
+        public Builder trim() {
+            this.trim = true;
+            return this;
+        }
+
+        public TextNormalizer build() {
+            return new TextNormalizer(this);
+        }
+
+        private void set(char c, char mapped) {
+            char[] block = table[c >>> 8];
+            if (block == null) {
+                block = new char[256];
+                int base = c & 0xFF00;
+                for (int k = 0; k < 256; k++) {
+                    block[k] = (char) (base | k);
+                }
+                table[c >>> 8] = block;
+            }
+            block[c & 0xFF] = mapped;
+        }
+
+        private void mark(char c) {
+            special[c >>> 6] |= 1L << c;
+        }
+    }
+}
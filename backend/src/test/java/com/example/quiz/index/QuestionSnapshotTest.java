@@ -0,0 +1,123 @@
+package com.example.quiz.index;
+
+import com.example.quiz.model.Question;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionSnapshotTest {
+
+    @Test
+    void ofSortsByIdAndKeepsLastDuplicate() {
+        Question stale = question(2L, "单选题", "旧");
+        Question fresh = question(2L, "多选题", "新");
+        QuestionSnapshot snapshot = QuestionSnapshot.of(List.of(question(3L, "单选题", "c"), stale,
+                question(1L, "单选题", "a"), fresh, question(null, "单选题", "无 id")));
+
+        assertArrayEquals(new long[]{1, 2, 3}, snapshot.ids());
+        assertSame(fresh, snapshot.get(2));
+        assertEquals(List.of(1L, 3L), ids(snapshot.byType("单选题")));
+        assertEquals(List.of(2L), ids(snapshot.byType("多选题")));
+    }
+
+    @Test
+    void withSavedInsertsInIdOrder() {
+        QuestionSnapshot base = QuestionSnapshot.of(List.of(question(2L, "单选题", "b"), question(5L, "单选题", "e")));
+
+        QuestionSnapshot updated = base.withSaved(List.of(question(7L, "多选题", "g"),
+                question(1L, "单选题", "a"), question(3L, "多选题", "c")));
+
+        assertArrayEquals(new long[]{1, 2, 3, 5, 7}, updated.ids());
+        assertEquals(List.of(1L, 2L, 3L, 5L, 7L), ids(updated.all()));
+        assertEquals(List.of(1L, 2L, 5L), ids(updated.byType("单选题")));
+        assertEquals(List.of(3L, 7L), ids(updated.byType("多选题")));
+        assertEquals(1L, updated.first().getId());
+        assertEquals(7L, updated.last().getId());
+        assertEquals(5L, updated.next(3).getId());
+        assertEquals(1L, updated.next(7).getId());
+        assertEquals(7L, updated.previous(1).getId());
+        // 原快照不变
+        assertArrayEquals(new long[]{2, 5}, base.ids());
+        assertNull(base.get(1));
+    }
+
+    @Test
+    void withSavedReplacesSameId() {
+        Question original = question(2L, "单选题", "原题");
+        QuestionSnapshot base = QuestionSnapshot.of(List.of(question(1L, "单选题", "a"), original));
+        Question edited = question(2L, "多选题", "改后");
+
+        QuestionSnapshot updated = base.withSaved(List.of(edited));
+
+        assertEquals(2, updated.size());
+        assertSame(edited, updated.get(2));
+        assertEquals(List.of(1L), ids(updated.byType("单选题")));
+        assertEquals(List.of(2L), ids(updated.byType("多选题")));
+        assertSame(original, base.get(2));
+    }
+
+    @Test
+    void withSavedReturnsSelfWhenNothingToAdd() {
+        QuestionSnapshot base = QuestionSnapshot.of(List.of(question(1L, "单选题", "a")));
+
+        assertSame(base, base.withSaved(List.of()));
+        assertSame(base, base.withSaved(List.of(question(null, "单选题", "无 id"))));
+    }
+
+    @Test
+    void withSavedOnEmpty() {
+        QuestionSnapshot updated = QuestionSnapshot.EMPTY.withSaved(List.of(question(4L, "单选题", "d")));
+
+        assertArrayEquals(new long[]{4}, updated.ids());
+        assertEquals(0, QuestionSnapshot.EMPTY.size());
+    }
+
+    @Test
+    void withoutRemovesIds() {
+        QuestionSnapshot base = QuestionSnapshot.of(List.of(question(1L, "单选题", "a"),
+                question(2L, "多选题", "b"), question(3L, "单选题", "c")));
+
+        QuestionSnapshot updated = base.without(List.of(3L, 2L, 2L, 99L));
+
+        assertArrayEquals(new long[]{1}, updated.ids());
+        assertNull(updated.get(2));
+        assertEquals(List.of(1L), ids(updated.byType("单选题")));
+        assertTrue(updated.byType("多选题").isEmpty());
+        assertArrayEquals(new long[]{1, 2, 3}, base.ids());
+    }
+
+    @Test
+    void withoutReturnsSelfWhenNothingRemoved() {
+        QuestionSnapshot base = QuestionSnapshot.of(List.of(question(1L, "单选题", "a")));
+
+        assertSame(base, base.without(List.of()));
+        assertSame(base, base.without(List.of(42L)));
+        assertSame(QuestionSnapshot.EMPTY, QuestionSnapshot.EMPTY.without(List.of(1L)));
+    }
+
+    @Test
+    void withoutAllLeavesEmptySnapshot() {
+        QuestionSnapshot base = QuestionSnapshot.of(List.of(question(1L, "单选题", "a"), question(2L, "单选题", "b")));
+
+        QuestionSnapshot updated = base.without(List.of(1L, 2L));
+
+        assertEquals(0, updated.size());
+        assertNull(updated.first());
+        assertNull(updated.next(1));
+        assertTrue(updated.all().isEmpty());
+    }
+
+    private static Question question(Long id, String type, String content) {
+        Question question = new Question();
+        question.setId(id);
+        question.setQuestionType(type);
+        question.setContent(content);
+        return question;
+    }
+
+    private static List<Long> ids(List<Question> questions) {
+        return questions.stream().map(Question::getId).toList();
+    }
+}
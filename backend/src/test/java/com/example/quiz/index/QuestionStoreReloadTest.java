@@ -0,0 +1,102 @@
+package com.example.quiz.index;
+
+import com.example.quiz.model.Question;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 绕过应用直接修改数据库后，reload / install 使快照、全文索引、筛选索引和版本号一起更新
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({QuestionStore.class, QuestionChangePublisher.class, QuestionSearchIndex.class,
+        QuestionFacetIndex.class, BankVersion.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:quizdb_store;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class QuestionStoreReloadTest {
+
+    @Autowired
+    private QuestionStore questionStore;
+
+    @Autowired
+    private QuestionSearchIndex questionSearchIndex;
+
+    @Autowired
+    private QuestionFacetIndex questionFacetIndex;
+
+    @Autowired
+    private BankVersion bankVersion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reloadRebuildsIndexesFromDatabase() {
+        long kept = insertRow("唯物辩证法的实质", "第一章", "单选题");
+        long removed = insertRow("认识的本质是反映", "第二章", "单选题");
+        // 上下文启动时（ApplicationReadyEvent）已加载过空题库
+        questionStore.reload();
+        assertEquals(2, questionFacetIndex.count(null, null));
+        assertEquals(List.of(removed), ids(questionSearchIndex.search("反映")));
+
+        // 绕过应用修改数据库：索引在 reload 之前保持原样
+        long added = insertRow("社会存在决定社会意识", "第三章", "多选题");
+        jdbcTemplate.update("DELETE FROM question WHERE id = ?", removed);
+        assertEquals(2, questionFacetIndex.count(null, null));
+        long versionBefore = bankVersion.current();
+
+        questionStore.reload();
+
+        assertArrayEquals(new long[]{kept, added}, questionStore.current().ids());
+        assertArrayEquals(new long[]{kept, added}, questionFacetIndex.ids(null, null));
+        assertArrayEquals(new long[]{added}, questionFacetIndex.ids("多选题", "第三章"));
+        assertEquals(Map.of("第一章", 1, "第三章", 1), questionFacetIndex.facets(null, null).get("chapters"));
+        assertTrue(questionSearchIndex.search("反映").isEmpty());
+        assertEquals(List.of(added), ids(questionSearchIndex.search("社会意识")));
+        assertTrue(bankVersion.current() > versionBefore);
+    }
+
+    @Test
+    void installRebuildsIndexesFromFileContent() {
+        insertRow("数据库中的旧题目", "第一章", "单选题");
+        questionStore.reload();
+        assertEquals(1, questionFacetIndex.count(null, null));
+
+        Question fromFile = new Question();
+        fromFile.setId(42L);
+        fromFile.setContent("快照文件中的题目");
+        fromFile.setQuestionType("多选题");
+        fromFile.setChapter("第五章");
+        questionStore.install(List.of(fromFile), 0);
+
+        assertArrayEquals(new long[]{42}, questionFacetIndex.ids("多选题", "第五章"));
+        assertEquals(1, questionFacetIndex.count(null, null));
+        assertEquals(List.of(42L), ids(questionSearchIndex.search("快照文件")));
+        assertTrue(questionSearchIndex.search("旧题目").isEmpty());
+    }
+
+    private long insertRow(String content, String chapter, String questionType) {
+        jdbcTemplate.update("INSERT INTO question (content, optiona, optionb, optionc, optiond, answer, question_type, chapter) "
+                + "VALUES (?, '甲', '乙', '丙', '丁', 'A', ?, ?)", content, questionType, chapter);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM question", Long.class);
+    }
+
+    private static List<Long> ids(List<Question> questions) {
+        return questions.stream().map(Question::getId).toList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.quiz.parse;
+
+import org.junit.jupiter.api.Test;
+import org.xml.sax.helpers.AttributesImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChunkedTextHandlerTest {
+
+    private static final String XHTML = "http://www.w3.org/1999/xhtml";
+
+    @Test
+    void emitsOnlyBodyTextPerPage() throws Exception {
+        List<String> chunks = new ArrayList<>();
+        ChunkedTextHandler handler = new ChunkedTextHandler(chunks::add, 1024);
+
+        handler.startDocument();
+        start(handler, "html");
+        start(handler, "head");
+        start(handler, "title");
+        text(handler, "马克思主义基本原理题库.docx");
+        end(handler, "title");
+        end(handler, "head");
+        start(handler, "body");
+        start(handler, "div");
+        start(handler, "p");
+        text(handler, "1.题干");
+        end(handler, "p");
+        start(handler, "p");
+        text(handler, "A.选项");
+        end(handler, "p");
+        end(handler, "div");
+        start(handler, "div");
+        text(handler, "答案：A");
+        end(handler, "div");
+        end(handler, "body");
+        end(handler, "html");
+        handler.endDocument();
+
+        assertEquals(List.of("1.题干\nA.选项", "答案：A"), chunks);
+        assertEquals("1.题干\nA.选项答案：A".length(), handler.getTotalChars());
+    }
+
+    @Test
+    void splitsLongTextByChunkSize() {
+        List<String> chunks = new ArrayList<>();
+        ChunkedTextHandler handler = new ChunkedTextHandler(chunks::add, 4);
+
+        start(handler, "body");
+        text(handler, "0123456789");
+        end(handler, "body");
+        handler.endDocument();
+
+        assertEquals(List.of("0123", "4567", "89"), chunks);
+    }
+
+    private static void start(ChunkedTextHandler handler, String name) {
+        handler.startElement(XHTML, name, name, new AttributesImpl());
+    }
+
+    private static void end(ChunkedTextHandler handler, String name) {
+        handler.endElement(XHTML, name, name);
+    }
+
+    private static void text(ChunkedTextHandler handler, String text) {
+        handler.characters(text.toCharArray(), 0, text.length());
+    }
+}
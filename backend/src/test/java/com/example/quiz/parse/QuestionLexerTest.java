@@ -0,0 +1,47 @@
+package com.example.quiz.parse;
+
+import com.example.quiz.parse.QuestionLexer.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QuestionLexerTest {
+
+    @Test
+    void questionNumbersUpToFiveDigits() {
+        assertEquals(List.of("QUESTION_NUMBER:1", "QUESTION_NUMBER:9999", "QUESTION_NUMBER:10000", "QUESTION_NUMBER:99999"),
+                tokens("1、甲\n9999、乙\n10000、丙\n99999.丁"));
+        // 六位数字不是题号
+        assertEquals(List.of(), tokens("123456、戊"));
+    }
+
+    @Test
+    void decimalIsNotQuestionNumber() {
+        assertEquals(List.of("QUESTION_NUMBER:3"), tokens("3.14 是圆周率\n3.题干 2.5 倍"));
+        assertEquals(List.of("INLINE_NUMBER:12"), tokens("甲 12、乙"));
+    }
+
+    @Test
+    void optionLabelNeedsWordBoundary() {
+        assertEquals(List.of("OPTION:A", "OPTION:B", "OPTION:C", "OPTION:D"), tokens("A、甲B、乙 C.丙\nD.丁"));
+        // 单词中间的 A. / E、 不是选项标号
+        assertEquals(List.of(), tokens("DNA.分子 RNA、蛋白质 ONE、 iPhoneE."));
+        // 选项以数字结尾、下一个标号紧跟其后
+        assertEquals(List.of("OPTION:A", "OPTION:B", "OPTION:C", "OPTION:D"), tokens("A.1921B.1927C.1949D.1956"));
+        assertEquals(List.of("OPTION:B"), tokens("(DNA)B.双螺旋"));
+    }
+
+    // 只输出非 TEXT 的词法单元，格式为 类型:值
+    private static List<String> tokens(String text) {
+        List<String> result = new ArrayList<>();
+        new QuestionLexer((type, value, raw, offset) -> {
+            if (type != TokenType.TEXT) {
+                result.add(type + ":" + value);
+            }
+        }).lex(text, 0, text.length(), 0);
+        return result;
+    }
+}
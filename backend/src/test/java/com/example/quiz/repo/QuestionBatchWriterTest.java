@@ -0,0 +1,116 @@
+package com.example.quiz.repo;
+
+import com.example.quiz.model.Question;
+import com.example.quiz.parse.QuestionFingerprint;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在与 loadtest 配置相同的 H2（MySQL 兼容模式）上验证批量写入：表结构由 Hibernate 按实体生成，
+ * 因此 INSERT 中的列名与实体映射不一致时这里会直接失败
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QuestionBatchWriter.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:quizdb_writer;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "quiz.import.batch-size=2"
+})
+class QuestionBatchWriterTest {
+
+    @Autowired
+    private QuestionBatchWriter questionBatchWriter;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void insertNewWritesAllColumnsAndFillsIds() {
+        Question question = question("马克思主义哲学的直接理论来源是", "A");
+        question.setOptionE("以上都不对");
+        question.setQuestionType("单选题");
+        question.setChapter("第一章");
+
+        List<Question> inserted = questionBatchWriter.insertNew(List.of(question));
+
+        assertEquals(1, inserted.size());
+        assertNotNull(question.getId());
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM question WHERE id = ?", question.getId());
+        assertEquals("马克思主义哲学的直接理论来源是", row.get("content"));
+        assertEquals("选项A", row.get("optiona"));
+        assertEquals("选项B", row.get("optionb"));
+        assertEquals("选项C", row.get("optionc"));
+        assertEquals("选项D", row.get("optiond"));
+        assertEquals("以上都不对", row.get("optione"));
+        assertEquals("A", row.get("answer"));
+        assertEquals("单选题", row.get("question_type"));
+        assertEquals("第一章", row.get("chapter"));
+        assertEquals(QuestionFingerprint.of(question), row.get("content_hash"));
+    }
+
+    @Test
+    void insertNewSkipsDuplicatesWithinCallAndAcrossBatches() {
+        // batch-size=2：重复题目分别落在同一批和不同批中
+        List<Question> questions = List.of(
+                question("题目一", "A"),
+                question("题目一", "A"),
+                question("题目二", "B"),
+                question("题目一", "A"),
+                question("题目三", "C"));
+
+        List<Question> inserted = questionBatchWriter.insertNew(questions);
+
+        assertEquals(List.of("题目一", "题目二", "题目三"), inserted.stream().map(Question::getContent).toList());
+        assertTrue(inserted.stream().allMatch(q -> q.getId() != null));
+        assertEquals(3L, questionRepository.count());
+    }
+
+    @Test
+    void insertNewSkipsQuestionsAlreadyInDatabase() {
+        questionBatchWriter.insertNew(List.of(question("已有题目", "A"), question("另一道题", "B")));
+
+        List<Question> again = new ArrayList<>();
+        again.add(question("已有题目", "A"));
+        again.add(question("已有题目", "C")); // 答案不同，指纹不同
+        again.add(question("新题目", "D"));
+        List<Question> inserted = questionBatchWriter.insertNew(again);
+
+        assertEquals(List.of("C", "D"), inserted.stream().map(Question::getAnswer).toList());
+        assertNull(again.get(0).getId());
+        assertEquals(4L, questionRepository.count());
+    }
+
+    @Test
+    void insertNewWithEmptyList() {
+        assertTrue(questionBatchWriter.insertNew(List.of()).isEmpty());
+        assertEquals(0L, questionRepository.count());
+    }
+
+    private static Question question(String content, String answer) {
+        Question question = new Question();
+        question.setContent(content);
+        question.setOptionA("选项A");
+        question.setOptionB("选项B");
+        question.setOptionC("选项C");
+        question.setOptionD("选项D");
+        question.setAnswer(answer);
+        return question;
+    }
+}
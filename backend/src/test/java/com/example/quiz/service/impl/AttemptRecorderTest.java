@@ -0,0 +1,112 @@
+package com.example.quiz.service.impl;
+
+import com.example.quiz.model.AnswerAttempt;
+import com.example.quiz.repo.AttemptBatchWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AttemptRecorderTest {
+
+    // questionId 为负数的记录写入时违反约束；available 为 false 时模拟数据库不可用
+    private static class FakeWriter extends AttemptBatchWriter {
+        final List<Long> written = new ArrayList<>();
+        boolean available = true;
+        int calls;
+
+        @Override
+        public void insertAll(List<AnswerAttempt> attempts) {
+            calls++;
+            if (!available) {
+                throw new CannotGetJdbcConnectionException("数据库不可用");
+            }
+            if (attempts.stream().anyMatch(attempt -> attempt.getQuestionId() < 0)) {
+                throw new DataIntegrityViolationException("违反约束");
+            }
+            attempts.forEach(attempt -> written.add(attempt.getQuestionId()));
+        }
+    }
+
+    private final FakeWriter writer = new FakeWriter();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void badRowIsRejectedAfterRetriesWithoutStallingOthers() {
+        AttemptRecorder recorder = new AttemptRecorder(writer, registry, 8, 100, 3);
+        for (long id : new long[]{1, 2, -3, 4, 5}) {
+            recorder.record(attempt(id));
+        }
+
+        recorder.flush();
+        recorder.flush();
+        assertTrue(writer.written.isEmpty());
+        assertEquals(5, gauge("quiz.attempts.pending"));
+
+        // 第三轮：拆分后好的记录写入，坏记录丢弃
+        recorder.flush();
+        assertEquals(List.of(1L, 2L, 4L, 5L), writer.written.stream().sorted().toList());
+        assertEquals(1, counter("quiz.attempts.rejected"));
+        assertEquals(0, gauge("quiz.attempts.pending"));
+
+        // 之后的记录正常写入
+        recorder.record(attempt(6));
+        recorder.flush();
+        assertEquals(5, writer.written.size());
+        // 三轮整批失败 + 拆分时 [-3,4,5] 与 [-3] 各失败一次
+        assertEquals(5, counter("quiz.attempts.flush.failures"));
+    }
+
+    @Test
+    void outageKeepsRecordsUntilDatabaseRecovers() {
+        AttemptRecorder recorder = new AttemptRecorder(writer, registry, 2, 100, 2);
+        for (long id = 1; id <= 5; id++) {
+            recorder.record(attempt(id));
+        }
+        writer.available = false;
+
+        for (int i = 0; i < 10; i++) {
+            recorder.flush();
+        }
+        // 每轮只尝试重试批次一次，不拆分、不丢弃
+        assertEquals(10, writer.calls);
+        assertEquals(0, counter("quiz.attempts.rejected"));
+        assertEquals(5, gauge("quiz.attempts.pending"));
+
+        writer.available = true;
+        recorder.flush();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), writer.written.stream().sorted().toList());
+        assertEquals(0, gauge("quiz.attempts.pending"));
+    }
+
+    @Test
+    void overflowIsDroppedWithoutBlocking() {
+        AttemptRecorder recorder = new AttemptRecorder(writer, registry, 10, 3, 3);
+        for (long id = 1; id <= 5; id++) {
+            recorder.record(attempt(id));
+        }
+
+        assertEquals(2, counter("quiz.attempts.dropped"));
+        recorder.shutdown();
+        assertEquals(List.of(1L, 2L, 3L), writer.written);
+    }
+
+    private double counter(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+
+    private static AnswerAttempt attempt(long questionId) {
+        return new AnswerAttempt(questionId, "u1", "A", true, LocalDateTime.now());
+    }
+}
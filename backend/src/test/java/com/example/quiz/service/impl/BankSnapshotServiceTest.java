@@ -0,0 +1,127 @@
+package com.example.quiz.service.impl;
+
+import com.example.quiz.index.BankVersion;
+import com.example.quiz.index.QuestionChangePublisher;
+import com.example.quiz.index.QuestionFacetIndex;
+import com.example.quiz.index.QuestionSearchIndex;
+import com.example.quiz.index.QuestionStore;
+import com.example.quiz.model.Question;
+import com.example.quiz.parse.QuestionFingerprint;
+import com.example.quiz.repo.QuestionBatchWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 启动预热只在快照文件与数据库题库指纹一致时装入文件；题目数和最大 id 相同但内容、题型、章节被修改时改为从数据库加载
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BankSnapshotService.class, QuestionBatchWriter.class, QuestionStore.class, QuestionChangePublisher.class,
+        QuestionSearchIndex.class, QuestionFacetIndex.class, BankVersion.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:quizdb_snapshot;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class BankSnapshotServiceTest {
+
+    @Autowired
+    private BankSnapshotService bankSnapshotService;
+
+    @Autowired
+    private QuestionBatchWriter questionBatchWriter;
+
+    @Autowired
+    private QuestionStore questionStore;
+
+    @Autowired
+    private QuestionSearchIndex questionSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path tempDir;
+
+    private long[] ids;
+
+    @BeforeEach
+    void exportBank() throws Exception {
+        ReflectionTestUtils.setField(bankSnapshotService, "snapshotFile", tempDir.resolve("bank.qbnk").toString());
+        List<Question> questions = questionBatchWriter.insertAll(new ArrayList<>(List.of(
+                question("实践是认识的来源", "第一章"), question("矛盾是事物发展的动力", "第二章"))));
+        ids = questions.stream().mapToLong(Question::getId).toArray();
+        questionStore.reload();
+        bankSnapshotService.exportToFile();
+        // 清空内存题库，以便区分预热是否装入了文件
+        questionStore.install(List.of(), 0);
+    }
+
+    @Test
+    void matchingBankIsInstalledFromFile() {
+        bankSnapshotService.warmStart();
+
+        assertArrayEquals(ids, questionStore.current().ids());
+        assertEquals(List.of(ids[0]), questionSearchIndex.search("认识的来源").stream().map(Question::getId).toList());
+    }
+
+    @Test
+    void answerEditIsDetected() {
+        Question edited = question("实践是认识的来源", "第一章");
+        edited.setAnswer("B");
+        jdbcTemplate.update("UPDATE question SET answer = 'B', content_hash = ? WHERE id = ?",
+                QuestionFingerprint.of(edited), ids[0]);
+
+        bankSnapshotService.warmStart();
+
+        assertEquals(0, questionStore.current().ids().length);
+    }
+
+    @Test
+    void chapterEditIsDetected() {
+        jdbcTemplate.update("UPDATE question SET chapter = '第三章' WHERE id = ?", ids[1]);
+
+        bankSnapshotService.warmStart();
+
+        assertEquals(0, questionStore.current().ids().length);
+    }
+
+    @Test
+    void rowWithoutContentHashFallsBackToDatabase() {
+        jdbcTemplate.update("UPDATE question SET content_hash = NULL WHERE id = ?", ids[0]);
+
+        bankSnapshotService.warmStart();
+
+        assertEquals(0, questionStore.current().ids().length);
+    }
+
+    private static Question question(String content, String chapter) {
+        Question question = new Question();
+        question.setContent(content);
+        question.setOptionA("甲");
+        question.setOptionB("乙");
+        question.setOptionC("丙");
+        question.setOptionD("丁");
+        question.setAnswer("A");
+        question.setQuestionType("单选题");
+        question.setChapter(chapter);
+        return question;
+    }
+}
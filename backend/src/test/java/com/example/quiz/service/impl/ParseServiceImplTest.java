@@ -0,0 +1,253 @@
+package com.example.quiz.service.impl;
+
+import com.example.quiz.model.Question;
+import com.example.quiz.parse.IncrementalQuestionParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 词法分析器 + 状态机解析结果与改写前 ParseServiceImpl 正则解析结果的对照。
+ * 旧正则原样保留；旧代码中 user-008 已说明的缺陷在对照实现里按原意修正后再比较：
+ * 题型标识用规范化后的“、”匹配、按分组的本意取答案和选项、每段文本只解析一次，
+ * 多选题答案使用与材料题相同的字符类（旧单选/多选正则只接受一个字母）。
+ * 新解析器把题干、选项内的换行合并为空格，比较时连续空白视为一个空格。
+ */
+class ParseServiceImplTest {
+
+    private static final String SINGLE_DOCUMENT = """
+            绪论
+            一､单项选择题
+            1､马克思主义哲学的直接理论来源是（ A ）
+            A､德国古典哲学
+            B､英国古典政治经济学
+            C､法国空想社会主义
+            D､古希腊哲学
+            2､地球到太阳的距离约为 1.5 亿公里，这一认识属于（ B ）
+            A､感性认识 B､理性认识 C､错误认识 D､实践
+            第一章 物质世界和实践
+            一､单项选择题
+            1､计算机中常见的 IDE 与编译器的关系说明（ D ）
+            A､意识决定物质
+            B､物质不可认识
+
+            C､世界不可知
+            D､工具之间相互联系，如 IDE､JDK
+            12345､题号超过四位的题目（ C ）
+            A､甲 B､乙
+            C､丙 D､丁
+            """;
+
+    private static final String MULTI_DOCUMENT = """
+            第二章 事物的普遍联系和变化发展
+            二､多项选择题
+            1､实践的基本特征有（ ABC ）
+            A､客观物质性
+            B､自觉能动性
+            C､社会历史性
+            D､主观随意性
+            2､下列属于唯物辩证法基本规律的是（A,B,D）
+            A､对立统一规律 B､质量互变规律 C､因果规律 D､否定之否定规律
+            3､认识的两次飞跃是指（ A B ）
+            A､从实践到认识
+            B､从认识到实践
+            C､从感性到感性
+            D､从理性到理性
+            """;
+
+    private static final String MATERIAL_DOCUMENT = """
+            第三章 人类社会及其发展规律
+            一､单项选择题
+            1､生产力中起主导作用的是（ C ）
+            A､劳动对象 B､劳动资料 C､劳动者 D､生产关系
+            三､材料分析题
+            【材料1】
+            恩格斯说：劳动创造了人本身。
+            (1)上述材料体现的哲学原理是（ AB ）
+            A､实践是认识的来源
+            B､劳动在人类形成中起决定作用
+            C､意识决定物质
+            D､物质决定意识
+            (2)材料说明了（ C ）
+            【材料2】
+            毛泽东说：没有调查，就没有发言权。
+            (1)这句话强调的是（ D ）
+            A､唯心主义
+            B､形而上学
+            C､不可知论
+            D､实践第一的观点
+            """;
+
+    // 改写前 ParseServiceImpl 中的正则（原样）
+    private static final Pattern LEGACY_MATERIAL = Pattern.compile(
+            "【材料(\\d+)】([\\s\\S]+?)(?=【材料\\d+】|$)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LEGACY_MATERIAL_QUESTION = Pattern.compile(
+            "([\\s\\S]*?)?" + "([\\s\\S]+?)" + "\\(([A-D,\\s]+)\\)" + "\\s*"
+                    + "(?:A、([\\s\\S]+?))?" + "(?:B、([\\s\\S]+?))?" + "(?:C、([\\s\\S]+?))?" + "(?:D、([\\s\\S]+?))?"
+                    + "(?=\\(\\d+\\)|【材料\\d+】|$)",
+            Pattern.DOTALL);
+    private static final String LEGACY_QUESTION = "(\\d+)、([^\\n]+?)" + "\\((%s)\\)\\s*"
+            + "A、([^B、]+?)" + "B、([^C、]+?)" + "C、([^D、]+?)" + "D、([^\\d]+?)(?=\\d+、|$)";
+    private static final Pattern LEGACY_SINGLE = Pattern.compile(
+            String.format(LEGACY_QUESTION, "\\s*[A-D]\\s*"), Pattern.CASE_INSENSITIVE);
+    private static final Pattern LEGACY_MULTI = Pattern.compile(
+            String.format(LEGACY_QUESTION, "[A-D,\\s]+"), Pattern.CASE_INSENSITIVE);
+
+    // 旧代码按这些标识切分文本（QUESTION_TYPE_MARKERS），这里按行首标识行切分
+    private static final Pattern HEADING = Pattern.compile(
+            "^(第[一二三四五六七八九十]+章|绪论|[一二三四五六七八九十]+、\\S{0,10}题).*$", Pattern.MULTILINE);
+
+    private final ParseServiceImpl parseService = new ParseServiceImpl();
+
+    @Test
+    void singleChoiceMatchesLegacyRegex() {
+        List<String> parsed = describe(parseService.parseQuestions(SINGLE_DOCUMENT));
+
+        assertEquals(describe(legacyParse(SINGLE_DOCUMENT)), parsed);
+        assertEquals(4, parsed.size());
+    }
+
+    @Test
+    void multiChoiceMatchesLegacyRegex() {
+        List<String> parsed = describe(parseService.parseQuestions(MULTI_DOCUMENT));
+
+        assertEquals(describe(legacyParse(MULTI_DOCUMENT)), parsed);
+        assertEquals(3, parsed.size());
+    }
+
+    @Test
+    void materialMatchesLegacyRegex() {
+        List<String> parsed = describe(parseService.parseQuestions(MATERIAL_DOCUMENT));
+
+        assertEquals(describe(legacyParse(MATERIAL_DOCUMENT)), parsed);
+        assertEquals(4, parsed.size());
+    }
+
+    @Test
+    void chapterAndTypeMarkers() {
+        List<Question> questions = parseService.parseQuestions(SINGLE_DOCUMENT + MULTI_DOCUMENT + MATERIAL_DOCUMENT);
+
+        assertEquals(List.of("绪论", "绪论", "第一章", "第一章", "第二章", "第二章", "第二章",
+                        "第三章", "第三章", "第三章", "第三章"),
+                questions.stream().map(Question::getChapter).toList());
+        assertEquals(List.of("单选题", "单选题", "单选题", "单选题", "多选题", "多选题", "多选题",
+                        "单选题", "材料分析题", "材料分析题", "材料分析题"),
+                questions.stream().map(Question::getQuestionType).toList());
+    }
+
+    @Test
+    void streamingParserMatchesWholeDocument() {
+        String document = SINGLE_DOCUMENT + MULTI_DOCUMENT + MATERIAL_DOCUMENT;
+        List<String> expected = describe(parseService.parseQuestions(document));
+        for (int chunk : new int[]{1, 7, 33, 4096}) {
+            List<Question> streamed = new ArrayList<>();
+            IncrementalQuestionParser parser = new IncrementalQuestionParser(streamed::add, 10_000);
+            for (int from = 0; from < document.length(); from += chunk) {
+                parser.feed(document.substring(from, Math.min(document.length(), from + chunk)));
+            }
+            parser.finish();
+            assertEquals(expected, describe(streamed), "分块大小 " + chunk);
+        }
+    }
+
+    // 题目按“题型|章节|答案|题干|A|B|C|D|E”描述后排序（旧代码先输出材料题，与新解析器的文档顺序不同）
+    private static List<String> describe(List<Question> questions) {
+        return questions.stream()
+                .map(q -> String.join("|", q.getQuestionType(), String.valueOf(q.getChapter()), q.getAnswer(),
+                        squash(q.getContent()), squash(q.getOptionA()), squash(q.getOptionB()),
+                        squash(q.getOptionC()), squash(q.getOptionD()), squash(q.getOptionE())))
+                .sorted()
+                .toList();
+    }
+
+    private static String squash(String value) {
+        return value == null ? "null" : value.replaceAll("\\s+", " ").trim();
+    }
+
+    // 改写前的解析流程：先提取材料题，再去掉材料块，按标识行分段提取单选/多选题
+    private static List<Question> legacyParse(String document) {
+        String content = document
+                .replaceAll("､", "、")
+                .replaceAll("（", "(")
+                .replaceAll("）", ")")
+                .replaceAll("\\r\\n|\\r|\\n", "\n")
+                .replaceAll("\\n+", "\n")
+                .trim();
+        List<Question> questions = new ArrayList<>();
+
+        Matcher materialMatcher = LEGACY_MATERIAL.matcher(content);
+        while (materialMatcher.find()) {
+            String materialNo = materialMatcher.group(1);
+            String chapter = chapterBefore(content, materialMatcher.start());
+            Matcher quesMatcher = LEGACY_MATERIAL_QUESTION.matcher(materialMatcher.group(2).trim());
+            while (quesMatcher.find()) {
+                Question question = new Question();
+                question.setContent("【材料" + materialNo + "】" + quesMatcher.group(2).trim());
+                question.setAnswer(quesMatcher.group(3).replaceAll("\\s|,", "").trim());
+                question.setOptionA(quesMatcher.group(4) != null ? quesMatcher.group(4).trim() : "");
+                question.setOptionB(quesMatcher.group(5) != null ? quesMatcher.group(5).trim() : "");
+                question.setOptionC(quesMatcher.group(6) != null ? quesMatcher.group(6).trim() : "");
+                question.setOptionD(quesMatcher.group(7) != null ? quesMatcher.group(7).trim() : "");
+                question.setQuestionType("材料分析题");
+                question.setChapter(chapter);
+                questions.add(question);
+            }
+        }
+
+        String remaining = content.replaceAll("【材料\\d+】[\\s\\S]+?(?=【材料\\d+】|$)", "");
+        Matcher heading = HEADING.matcher(remaining);
+        String chapter = null;
+        String type = "单选题";
+        int segmentStart = 0;
+        while (true) {
+            boolean found = heading.find();
+            int segmentEnd = found ? heading.start() : remaining.length();
+            legacySection(remaining.substring(segmentStart, segmentEnd), type, chapter, questions);
+            if (!found) {
+                return questions;
+            }
+            String marker = heading.group(1);
+            if (marker.startsWith("第") || marker.equals("绪论")) {
+                chapter = marker;
+            } else if (marker.contains("单项选择题")) {
+                type = "单选题";
+            } else if (marker.contains("多项选择题")) {
+                type = "多选题";
+            }
+            segmentStart = heading.end();
+        }
+    }
+
+    private static void legacySection(String segment, String type, String chapter, List<Question> questions) {
+        Matcher matcher = ("多选题".equals(type) ? LEGACY_MULTI : LEGACY_SINGLE).matcher(segment);
+        while (matcher.find()) {
+            Question question = new Question();
+            question.setContent(matcher.group(2).trim());
+            question.setAnswer(matcher.group(3).replaceAll("\\s|,", "").trim());
+            question.setOptionA(matcher.group(4).replaceAll("\\n", " ").trim());
+            question.setOptionB(matcher.group(5).replaceAll("\\n", " ").trim());
+            question.setOptionC(matcher.group(6).replaceAll("\\n", " ").trim());
+            question.setOptionD(matcher.group(7).replaceAll("\\n", " ").trim());
+            question.setQuestionType(type);
+            question.setChapter(chapter);
+            questions.add(question);
+        }
+    }
+
+    private static String chapterBefore(String content, int position) {
+        Matcher heading = HEADING.matcher(content.substring(0, position));
+        String chapter = null;
+        while (heading.find()) {
+            String marker = heading.group(1);
+            if (marker.startsWith("第") || marker.equals("绪论")) {
+                chapter = marker;
+            }
+        }
+        return chapter;
+    }
+}
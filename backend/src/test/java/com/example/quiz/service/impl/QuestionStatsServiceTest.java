@@ -0,0 +1,76 @@
+package com.example.quiz.service.impl;
+
+import com.example.quiz.index.BankVersion;
+import com.example.quiz.index.QuestionChangePublisher;
+import com.example.quiz.index.QuestionFacetIndex;
+import com.example.quiz.index.QuestionStore;
+import com.example.quiz.model.QuestionDifficulty;
+import com.example.quiz.repo.QuestionStatsWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({QuestionStatsService.class, QuestionStatsWriter.class, QuestionStore.class, QuestionChangePublisher.class,
+        QuestionFacetIndex.class, BankVersion.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:quizdb_stats;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class QuestionStatsServiceTest {
+
+    @Autowired
+    private QuestionStatsService questionStatsService;
+
+    @Autowired
+    private QuestionStore questionStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void hardestSkipsDeletedQuestions() {
+        long easy = insertRow("第一章", "单选题");
+        long hard = insertRow("第一章", "单选题");
+        long deleted = insertRow("第二章", "多选题");
+        questionStore.reload();
+        questionStatsService.record(easy, 1, true);
+        questionStatsService.record(hard, 2, false);
+        for (int i = 0; i < 3; i++) {
+            questionStatsService.record(deleted, 4, false);
+        }
+        assertEquals(List.of(deleted, hard, easy), ids(questionStatsService.hardest(null, null, true, 0, 10)));
+
+        jdbcTemplate.update("DELETE FROM question WHERE id = ?", deleted);
+        questionStore.reload();
+
+        assertEquals(List.of(hard, easy), ids(questionStatsService.hardest(null, null, true, 0, 10)));
+        assertEquals(List.of(hard, easy), ids(questionStatsService.hardest(null, "第一章", false, 0, 10)));
+        assertEquals(List.of(), ids(questionStatsService.hardest("多选题", null, true, 0, 10)));
+        // 计数器本身保留，按原 id 恢复题库后统计仍在
+        assertNotNull(questionStatsService.get(deleted));
+    }
+
+    private long insertRow(String chapter, String questionType) {
+        jdbcTemplate.update("INSERT INTO question (content, optiona, optionb, optionc, optiond, answer, question_type, chapter) "
+                + "VALUES ('题干', '甲', '乙', '丙', '丁', 'A', ?, ?)", questionType, chapter);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM question", Long.class);
+    }
+
+    private static List<Long> ids(List<QuestionDifficulty> difficulties) {
+        return difficulties.stream().map(QuestionDifficulty::getQuestionId).toList();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * TextNormalizer 各配置与原先逐步 replace/replaceAll 写法的输出一致性
+ */
+class TextNormalizerTest {
+
+    private static final String DOCUMENT_SAMPLE = "\r\n\r\n第一章 物质世界\r\n"
+            + "1.马克思主义哲学的直接理论来源是（　　）\r\n\r\n"
+            + "A､德国古典哲学\rB､英国古典政治经济学\n\n\nC､空想社会主义\r\n"
+            + "答案：A\n\n"
+            + "2、下列说法正确的是（ ）\nA、物质决定意识\nB、意识决定物质  \n\n";
+
+    private static final String PASTED_SAMPLE = "  1. 下列属于唯物主义观点的是（　）\n"
+            + "A. 物质第一性\tB. 意识第一性\r\n C.存在即被感知   D.心外无物\n"
+            + "E. 以上都不对\n\n答案：A\n2. 真理的特性（多选）  A.客观性 B.绝对性 C.相对性  ";
+
+    private static final String PDF_SAMPLE = "《马克思主义基本原理概论》题库\n第一章 绪论\n一、单项选择题\n"
+            + "1．马克思主义哲学的直接理论来源是（　）\n"
+            + "A．德国古典哲学\u3000B．英国古典政治经济学\nC、法国空想社会主义 D. 古希腊哲学\n"
+            + "答案：A\n"
+            + "2、下列说法正确的是？\nA.物质决定意识 B,意识决定物质\n●重点★ \u2014\u00A0\n"
+            + "第二节 认识论\n二、多项选择题\n"
+            + "12 . 实践的基本特征有！\nA，客观物质性 B．自觉能动性\tC．社会历史性\n答案：ABC\n"
+            + "三、材料分析题\n测试题 试卷\n13、阅读材料：\u0007……回答问题；";
+
+    @Test
+    void documentMatchesReplaceAllChain() {
+        assertEquals(legacyDocument(DOCUMENT_SAMPLE), TextNormalizer.DOCUMENT.normalize(DOCUMENT_SAMPLE));
+        assertRandomEquivalent("ab、､（）()\r\n \t1.A", 20_000, TextNormalizer.DOCUMENT, TextNormalizerTest::legacyDocument);
+    }
+
+    @Test
+    void documentSessionMatchesWholeText() {
+        // 流式解析按任意位置分块，结果应与整段规范化相同（\r\n 被拆在两块之间也一样）
+        String expected = TextNormalizer.DOCUMENT.normalize(DOCUMENT_SAMPLE);
+        for (int chunk = 1; chunk <= 8; chunk++) {
+            TextNormalizer.Session session = TextNormalizer.DOCUMENT.session();
+            StringBuilder out = new StringBuilder();
+            for (int from = 0; from < DOCUMENT_SAMPLE.length(); from += chunk) {
+                session.append(DOCUMENT_SAMPLE.substring(from, Math.min(DOCUMENT_SAMPLE.length(), from + chunk)), out);
+            }
+            assertEquals(expected, out.toString().trim(), "分块大小 " + chunk);
+        }
+    }
+
+    @Test
+    void pastedTextMatchesReplaceChain() {
+        assertEquals(legacyPastedText(PASTED_SAMPLE), TextNormalizer.PASTED_TEXT.normalize(PASTED_SAMPLE));
+        assertRandomEquivalent("ABCDEx.、（）() \t\r\n1", 20_000, TextNormalizer.PASTED_TEXT, TextNormalizerTest::legacyPastedText);
+    }
+
+    @Test
+    void pdfMatchesReplaceAllChain() {
+        // PDF 规则只在真实排版的文本上与旧写法比较：旧写法分多步删除，个别人为构造的字符顺序下删除先后会影响结果
+        assertEquals(legacyPdf(PDF_SAMPLE), TextNormalizer.PDF.normalize(PDF_SAMPLE));
+        assertEquals(legacyPdf(DOCUMENT_SAMPLE), TextNormalizer.PDF.normalize(DOCUMENT_SAMPLE));
+        assertEquals(legacyPdf(PASTED_SAMPLE), TextNormalizer.PDF.normalize(PASTED_SAMPLE));
+    }
+
+    @Test
+    void fullWidthMatchesCharLoop() {
+        StringBuilder all = new StringBuilder();
+        for (char c = 0x20; c < 0x3100; c++) {
+            all.append(c);
+        }
+        all.append('\uFF01').append('\uFF5E').append('\uFF5F').append('\u3000');
+        assertEquals(legacyFullWidth(all.toString()), TextNormalizer.FULL_WIDTH.normalize(all));
+    }
+
+    private static void assertRandomEquivalent(String alphabet, int rounds, TextNormalizer normalizer,
+                                               java.util.function.UnaryOperator<String> legacy) {
+        Random random = new Random(42);
+        for (int round = 0; round < rounds; round++) {
+            char[] chars = new char[random.nextInt(24)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            String input = new String(chars);
+            assertEquals(legacy.apply(input), normalizer.normalize(input), () -> "输入: " + escape(input));
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("\r", "\\r").replace("\n", "\\n").replace("\t", "\\t");
+    }
+
+    // 以下为改写前 ParseServiceImpl、TextQuestionParser、PDFFileImport、CommonUtil 中的原始实现
+
+    private static String legacyDocument(String content) {
+        return content
+                .replaceAll("､", "、")
+                .replaceAll("（", "(")
+                .replaceAll("）", ")")
+                .replaceAll("\\r\\n|\\r|\\n", "\n")
+                .replaceAll("\\n+", "\n")
+                .trim();
+    }
+
+    private static String legacyPastedText(String text) {
+        return text
+                .replaceAll("\\s+", " ")
+                .replace("A.", "A、")
+                .replace("B.", "B、")
+                .replace("C.", "C、")
+                .replace("D.", "D、")
+                .replace("E.", "E、")
+                .replace("（", "(")
+                .replace("）", ")")
+                .trim();
+    }
+
+    private static String legacyPdf(String text) {
+        return text
+                .replace("　", " ")
+                .replace("（", "(")
+                .replace("）", ")")
+                .replace("．", "")
+                .replace("，", "")
+                .replace("；", ";")
+                .replace("：", ":")
+                .replace("？", "?")
+                .replace("！", "!")
+                .replace("、", "")
+                .replaceAll("\\s", "")
+                .replaceAll("(\\d+)\\s*[\\.、,]\\s*", "$1")
+                .replaceAll("\\s*([A-E])\\s*[\\.、，,]\\s*", "$1")
+                .replaceAll("第[一二三四五六七八九十]+章\\s*", "")
+                .replaceAll("第[一二三四五六七八九十]+节\\s*", "")
+                .replaceAll("[一二三四五六七八九十]、[^\\s]*题型", "")
+                .replaceAll("一单项选择题", "")
+                .replaceAll("二多项选择题", "")
+                .replaceAll("三材料分析题", "")
+                .replaceFirst("《马克思主义基本原理概论》", "")
+                .replace("绪论", "")
+                .replace("题库", "")
+                .replace("试卷", "")
+                .replace("测试题", "")
+                .replaceAll("[｡●◆■▲►▼◄►◄※★☆◎○●◇◆□℃§¶•→←↑↓↔↕↨↻⇄⇅⇆⇇⇈⇉]", "")
+                .replaceAll("[\\u0000-\\u001F\\u007F-\\u009F]", "")
+                .replaceAll("[\\u2000-\\u206F\\u2E00-\\u2E7F]", "")
+                .replaceAll("[\\u3000]", "")
+                .trim();
+    }
+
+    private static String legacyFullWidth(String input) {
+        StringBuilder sb = new StringBuilder(input.length());
+        for (char c : input.toCharArray()) {
+            if (c == 12288) {
+                sb.append((char) 32);
+            } else if (c >= 65281 && c <= 65374) {
+                sb.append((char) (c - 65248));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.quiz.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 基准测试入口：java -jar target/benchmarks.jar [基准名正则] [大小列表，如 1KB,1MB,10MB]
+ * 默认开启 GC 分析器，结果写入 jmh-result.json，结束后按大小打印伸缩曲线（每字节耗时应基本不变）。
+ * 需要 JMH 原生参数（-f、-wi、-prof 等）时直接用 java -cp target/benchmarks.jar org.openjdk.jmh.Main。
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : ImportPipelineBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json");
+        if (args.length > 1) {
+            options.param("size", args[1].split(","));
+        }
+        Collection<RunResult> results = new Runner(options.build()).run();
+        printScaling(results);
+    }
+
+    private static void printScaling(Collection<RunResult> results) {
+        List<RunResult> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator
+                .comparing((RunResult r) -> r.getParams().getBenchmark())
+                .thenComparingLong(r -> QuestionBankGenerator.parseSize(r.getParams().getParam("size"))));
+
+        System.out.println();
+        System.out.printf("%-60s %8s %12s %10s %12s %14s%n", "benchmark", "size", "ops/s", "MB/s", "ns/byte", "alloc B/op");
+        for (RunResult result : sorted) {
+            String size = result.getParams().getParam("size");
+            double opsPerSecond = result.getPrimaryResult().getScore();
+            Result<?> bytes = result.getSecondaryResults().get("bytes");
+            double bytesPerSecond = bytes != null ? bytes.getScore() : Double.NaN;
+            Result<?> alloc = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            System.out.printf("%-60s %8s %12.3f %10.2f %12.3f %14.0f%n",
+                    result.getParams().getBenchmark(), size, opsPerSecond,
+                    bytesPerSecond / (1024 * 1024), 1e9 / bytesPerSecond,
+                    alloc != null ? alloc.getScore() : Double.NaN);
+        }
+    }
+}
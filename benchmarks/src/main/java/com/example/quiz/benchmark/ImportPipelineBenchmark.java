@@ -0,0 +1,84 @@
+package com.example.quiz.benchmark;
+
+import com.example.quiz.parse.IncrementalQuestionParser;
+import com.example.quiz.parse.TextQuestionParser;
+import com.example.quiz.service.impl.ParseServiceImpl;
+import com.example.utils.CommonUtil;
+import com.example.utils.PDFFileImport;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导入链路基准测试：题库文本从 1KB 到 50MB，分别测各解析/预处理步骤的吞吐。
+ * 辅助计数器 bytes 以“每秒处理的字节数”报告，配合 -prof gc 可看到每次操作的内存分配量。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ImportPipelineBenchmark {
+
+    @Param({"1KB", "64KB", "1MB", "10MB", "50MB"})
+    public String size;
+
+    private String document;
+    private long documentBytes;
+    private ParseServiceImpl parseService;
+
+    /**
+     * 每次操作处理的字节数，JMH 会将其换算为每秒字节数
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        document = QuestionBankGenerator.generate(QuestionBankGenerator.parseSize(size), 42L);
+        documentBytes = document.getBytes(StandardCharsets.UTF_8).length;
+        // 只调用 parseQuestions（不入库），无需注入数据库相关依赖
+        parseService = new ParseServiceImpl();
+    }
+
+    @Benchmark
+    public void parseServiceParse(Bytes counter, Blackhole blackhole) {
+        blackhole.consume(parseService.parseQuestions(document));
+        counter.bytes += documentBytes;
+    }
+
+    @Benchmark
+    public void incrementalParse(Bytes counter, Blackhole blackhole) {
+        IncrementalQuestionParser parser = new IncrementalQuestionParser(blackhole::consume, 64 * 1024);
+        for (int from = 0; from < document.length(); from += 8192) {
+            parser.feed(document.subSequence(from, Math.min(document.length(), from + 8192)));
+        }
+        parser.finish();
+        blackhole.consume(parser.getQuestionsFound());
+        counter.bytes += documentBytes;
+    }
+
+    @Benchmark
+    public void textQuestionParser(Bytes counter, Blackhole blackhole) {
+        blackhole.consume(TextQuestionParser.parse(document));
+        counter.bytes += documentBytes;
+    }
+
+    @Benchmark
+    public void pdfImportPreprocess(Bytes counter, Blackhole blackhole) {
+        blackhole.consume(PDFFileImport.preprocess(document));
+        counter.bytes += documentBytes;
+    }
+
+    @Benchmark
+    public void fullWidthToHalfWidth(Bytes counter, Blackhole blackhole) {
+        blackhole.consume(CommonUtil.fullWidthToHalfWidth(document));
+        counter.bytes += documentBytes;
+    }
+}
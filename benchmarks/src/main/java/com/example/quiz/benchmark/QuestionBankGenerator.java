@@ -0,0 +1,126 @@
+package com.example.quiz.benchmark;
+
+import java.util.Random;
+
+/**
+ * 合成题库文本生成器：按目标大小（UTF-8 字节）生成与真实 PDF 提取结果格式一致的文本，
+ * 包含章节标题、题型标识、单选/多选题、材料分析题，以及全角标点（､（）：，。）和 PDF 式的断行。
+ */
+public final class QuestionBankGenerator {
+
+    private static final String[] CHAPTERS = {"绪论", "第一章", "第二章", "第三章", "第四章", "第五章", "第六章", "第七章"};
+    private static final String[] WORDS = {
+            "马克思主义", "物质", "意识", "实践", "认识", "辩证法", "唯物主义", "矛盾", "规律", "生产力",
+            "生产关系", "经济基础", "上层建筑", "社会存在", "社会意识", "人民群众", "价值", "商品", "货币", "资本",
+            "剩余价值", "垄断", "社会主义", "共产主义", "发展", "联系", "运动", "真理", "历史", "世界观"
+    };
+    private static final String[] CONNECTORS = {"的", "与", "是", "和", "在", "对", "中", "决定", "反映", "体现"};
+    private static final String LETTERS = "ABCDE";
+
+    private final Random random;
+    private final StringBuilder out;
+    private long bytes;
+    private int questionNo;
+
+    private QuestionBankGenerator(long seed, int capacity) {
+        this.random = new Random(seed);
+        this.out = new StringBuilder(capacity);
+    }
+
+    /**
+     * 生成大约 targetBytes 字节（UTF-8）的题库文本，相同 seed 生成相同内容
+     */
+    public static String generate(long targetBytes, long seed) {
+        QuestionBankGenerator generator = new QuestionBankGenerator(seed, (int) Math.min(Integer.MAX_VALUE - 8, targetBytes / 2));
+        generator.write(targetBytes);
+        return generator.out.toString();
+    }
+
+    /**
+     * 解析 "1KB" "64KB" "10MB" 形式的大小
+     */
+    public static long parseSize(String size) {
+        String s = size.trim().toUpperCase();
+        if (s.endsWith("MB")) {
+            return Long.parseLong(s.substring(0, s.length() - 2)) * 1024 * 1024;
+        }
+        if (s.endsWith("KB")) {
+            return Long.parseLong(s.substring(0, s.length() - 2)) * 1024;
+        }
+        return Long.parseLong(s);
+    }
+
+    private void write(long targetBytes) {
+        append("《马克思主义基本原理概论》题库\n");
+        int chapter = 0;
+        while (bytes < targetBytes) {
+            append(CHAPTERS[chapter++ % CHAPTERS.length] + " " + sentence(2) + "\n");
+            questionNo = 0; // 与真实题库一致，每章重新编号
+            append("一､单项选择题\n");
+            for (int i = 0; i < 20 && bytes < targetBytes; i++) {
+                choiceQuestion(false);
+            }
+            append("二､多项选择题\n");
+            for (int i = 0; i < 10 && bytes < targetBytes; i++) {
+                choiceQuestion(true);
+            }
+            append("三､材料分析题\n");
+            for (int m = 1; m <= 2 && bytes < targetBytes; m++) {
+                append("【材料" + m + "】" + sentence(30) + "。\n" + sentence(20) + "：“" + sentence(10) + "”\n");
+                for (int sub = 1; sub <= 3; sub++) {
+                    append("(" + sub + ")" + sentence(6) + "（" + answer(true) + "）\n");
+                    options(4);
+                }
+            }
+        }
+    }
+
+    private void choiceQuestion(boolean multi) {
+        questionNo++;
+        // 题干偶尔断行，模拟 PDF 提取效果
+        String stem = random.nextInt(4) == 0 ? sentence(6) + "\n" + sentence(4) : sentence(8);
+        append(questionNo + "、" + stem + "（ " + answer(multi) + " ）\n");
+        options(multi && random.nextBoolean() ? 5 : 4);
+    }
+
+    private void options(int count) {
+        for (int i = 0; i < count; i++) {
+            append(LETTERS.charAt(i) + "、" + sentence(2 + random.nextInt(3)));
+            // 选项有时同一行、有时换行
+            append(random.nextBoolean() ? " " : "\n");
+        }
+        append("\n");
+    }
+
+    private String answer(boolean multi) {
+        if (!multi) {
+            return String.valueOf(LETTERS.charAt(random.nextInt(4)));
+        }
+        StringBuilder answer = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            if (random.nextBoolean() || (i == 3 && answer.length() < 2)) {
+                answer.append(LETTERS.charAt(i));
+            }
+        }
+        return answer.toString();
+    }
+
+    private String sentence(int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(i % 5 == 0 ? "，" : CONNECTORS[random.nextInt(CONNECTORS.length)]);
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private void append(String s) {
+        out.append(s);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            bytes += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+    }
+}